@@ -0,0 +1,50 @@
+package com.example.cart.benchmark;
+
+import com.example.cart.CartApplication;
+import com.example.cart.service.AnalyticsAggregateStore;
+import com.example.cart.service.ProductPriceIndex;
+import com.example.cart.service.TextSearchIndex;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+@State(Scope.Benchmark)
+public class BenchmarkFixture {
+  @Param({"10000", "1000000"})
+  public int items;
+
+  private ConfigurableApplicationContext context;
+
+  @Setup(Level.Trial)
+  public void start() {
+    context = new SpringApplicationBuilder(CartApplication.class)
+        .web(WebApplicationType.NONE)
+        .run(
+            "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.hibernate.ddl-auto=create-drop",
+            "--spring.cache.type=none",
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN");
+    new FixtureGenerator(context, items).populate();
+    context.getBean(AnalyticsAggregateStore.class).reconcile();
+    context.getBean(TextSearchIndex.class).rebuild();
+    context.getBean(ProductPriceIndex.class).rebuild();
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+  }
+
+  public <T> T bean(Class<T> type) {
+    return context.getBean(type);
+  }
+}
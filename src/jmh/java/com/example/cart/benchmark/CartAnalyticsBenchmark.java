@@ -0,0 +1,85 @@
+package com.example.cart.benchmark;
+
+import com.example.cart.dto.CartEfficiencyDto;
+import com.example.cart.dto.CartFinalTotalDto;
+import com.example.cart.dto.CartTotalDto;
+import com.example.cart.dto.CategoryCountDto;
+import com.example.cart.dto.CustomerCartCountDto;
+import com.example.cart.dto.OutOfStockProductDto;
+import com.example.cart.dto.ProductCountDto;
+import com.example.cart.dto.PromoCodeDiscountDto;
+import com.example.cart.dto.PromoCodeDto;
+import com.example.cart.service.CartAnalyticsService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartAnalyticsBenchmark {
+  private CartAnalyticsService service;
+
+  @Setup(Level.Trial)
+  public void setUp(BenchmarkFixture fixture) {
+    service = fixture.bean(CartAnalyticsService.class);
+  }
+
+  @Benchmark
+  public List<CartTotalDto> activeCartTotals() {
+    return service.calculateActiveCartTotals();
+  }
+
+  @Benchmark
+  public List<ProductCountDto> top5ProductsByAdditions() {
+    return service.top5ProductsByAdditions();
+  }
+
+  @Benchmark
+  public List<CustomerCartCountDto> activeCartCountPerCustomer() {
+    return service.activeCartCountPerCustomer();
+  }
+
+  @Benchmark
+  public List<CategoryCountDto> categoryItemCounts() {
+    return service.categoryItemCounts();
+  }
+
+  @Benchmark
+  public List<CartFinalTotalDto> finalTotalsWithPromo() {
+    return service.finalTotalsWithPromo();
+  }
+
+  @Benchmark
+  public List<PromoCodeDto> activePromoCodesNeverUsed() {
+    return service.activePromoCodesNeverUsed();
+  }
+
+  @Benchmark
+  public List<PromoCodeDiscountDto> totalDiscountIfAppliedToEligibleCarts() {
+    return service.totalDiscountIfAppliedToEligibleCarts();
+  }
+
+  @Benchmark
+  public List<OutOfStockProductDto> productsInCartsOutOfStock() {
+    return service.productsInCartsOutOfStock();
+  }
+
+  @Benchmark
+  public List<CartEfficiencyDto> weightedCartEfficiencyScores() {
+    return service.weightedCartEfficiencyScores();
+  }
+}
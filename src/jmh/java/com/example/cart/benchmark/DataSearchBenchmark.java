@@ -0,0 +1,62 @@
+package com.example.cart.benchmark;
+
+import com.example.cart.dto.KeysetPage;
+import com.example.cart.dto.PageCursor;
+import com.example.cart.model.Cart;
+import com.example.cart.model.CartItem;
+import com.example.cart.model.Customer;
+import com.example.cart.model.Product;
+import com.example.cart.model.PromoCode;
+import com.example.cart.service.DataSearchService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataSearchBenchmark {
+  private DataSearchService service;
+
+  @Setup(Level.Trial)
+  public void setUp(BenchmarkFixture fixture) {
+    service = fixture.bean(DataSearchService.class);
+  }
+
+  @Benchmark
+  public KeysetPage<Customer> searchCustomers() {
+    return service.searchCustomers("user12", "GOLD", "2021-01-01", null, PageCursor.first());
+  }
+
+  @Benchmark
+  public KeysetPage<Product> searchProducts() {
+    return service.searchProducts("product 1", "category", "true", "10", "500", PageCursor.first());
+  }
+
+  @Benchmark
+  public KeysetPage<Cart> searchCarts() {
+    return service.searchCarts("42", "true", null, PageCursor.first());
+  }
+
+  @Benchmark
+  public KeysetPage<CartItem> searchCartItems() {
+    return service.searchCartItems("7", null, "2", PageCursor.first());
+  }
+
+  @Benchmark
+  public KeysetPage<PromoCode> searchPromos() {
+    return service.searchPromos("PERCENT", "true", "category 1", PageCursor.first());
+  }
+}
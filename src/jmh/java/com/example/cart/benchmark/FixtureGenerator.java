@@ -0,0 +1,119 @@
+package com.example.cart.benchmark;
+
+import com.example.cart.event.ProductState;
+import com.example.cart.model.Cart;
+import com.example.cart.model.CartItem;
+import com.example.cart.model.Customer;
+import com.example.cart.model.DiscountType;
+import com.example.cart.model.LoyaltyLevel;
+import com.example.cart.model.Product;
+import com.example.cart.model.PromoCode;
+import com.example.cart.repo.CartItemRepository;
+import com.example.cart.repo.CartRepository;
+import com.example.cart.repo.CustomerRepository;
+import com.example.cart.repo.ProductRepository;
+import com.example.cart.repo.PromoCodeRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class FixtureGenerator {
+  private static final int CHUNK_SIZE = 5_000;
+  private static final int PROMO_CODES = 200;
+  private static final int CATEGORIES = 20;
+
+  private final ApplicationContext context;
+  private final TransactionTemplate transactionTemplate;
+  private final int items;
+  private final Random random = new Random(20_240_101L);
+
+  FixtureGenerator(ApplicationContext context, int items) {
+    this.context = context;
+    this.transactionTemplate = context.getBean(TransactionTemplate.class);
+    this.items = items;
+  }
+
+  void populate() {
+    List<Product> products = saveInChunks(Math.max(100, items / 100), this::product,
+        chunk -> context.getBean(ProductRepository.class).saveAll(chunk));
+    List<Customer> customers = saveInChunks(Math.max(100, items / 20), this::customer,
+        chunk -> context.getBean(CustomerRepository.class).saveAll(chunk));
+    saveInChunks(PROMO_CODES, this::promoCode,
+        chunk -> context.getBean(PromoCodeRepository.class).saveAll(chunk));
+    List<Cart> carts = saveInChunks(Math.max(100, items / 5),
+        index -> cart(customers.get(random.nextInt(customers.size()))),
+        chunk -> context.getBean(CartRepository.class).saveAll(chunk));
+    saveInChunks(items,
+        index -> cartItem(carts.get(random.nextInt(carts.size())), products.get(random.nextInt(products.size()))),
+        chunk -> context.getBean(CartItemRepository.class).saveAll(chunk));
+  }
+
+  private <T> List<T> saveInChunks(int count, IndexedFactory<T> factory, Consumer<List<T>> save) {
+    List<T> saved = new ArrayList<>(count);
+    for (int start = 0; start < count; start += CHUNK_SIZE) {
+      List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+      for (int index = start; index < Math.min(count, start + CHUNK_SIZE); index++) {
+        chunk.add(factory.create(index));
+      }
+      transactionTemplate.executeWithoutResult(status -> save.accept(chunk));
+      saved.addAll(chunk);
+    }
+    return saved;
+  }
+
+  private Product product(int index) {
+    Product product = new Product();
+    product.setName("Product " + index);
+    product.setCategory("Category " + (index % CATEGORIES));
+    product.setBasePrice(BigDecimal.valueOf(100 + random.nextInt(100_000), 2));
+    product.setInStock(random.nextInt(10) != 0);
+    return product;
+  }
+
+  private Customer customer(int index) {
+    Customer customer = new Customer();
+    customer.setEmail("user" + index + "@example.com");
+    customer.setRegistrationDate(LocalDate.of(2020, 1, 1).plusDays(random.nextInt(1_500)));
+    customer.setLoyaltyLevel(LoyaltyLevel.values()[random.nextInt(LoyaltyLevel.values().length)]);
+    return customer;
+  }
+
+  private PromoCode promoCode(int index) {
+    boolean percent = index % 2 == 0;
+    return new PromoCode(
+        "PROMO" + index,
+        percent ? DiscountType.PERCENT : DiscountType.FIXED_AMOUNT,
+        percent ? BigDecimal.valueOf(5 + random.nextInt(30)) : BigDecimal.valueOf(100 + random.nextInt(5_000), 2),
+        random.nextInt(4) != 0,
+        index % 3 == 0 ? null : "Category " + (index % CATEGORIES));
+  }
+
+  private Cart cart(Customer customer) {
+    Cart cart = new Cart();
+    cart.updateCustomer(customer);
+    cart.updateCreatedDate(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(random.nextInt(500_000)));
+    cart.updateActive(random.nextBoolean());
+    cart.updatePromoCode(random.nextInt(3) == 0 ? "PROMO" + random.nextInt(PROMO_CODES * 2) : null);
+    return cart;
+  }
+
+  private CartItem cartItem(Cart cart, Product product) {
+    CartItem item = new CartItem();
+    item.updateCart(cart);
+    item.updateProductSnapshot(ProductState.of(product));
+    item.updateQuantity(1 + random.nextInt(5));
+    item.updateAddedDate(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(random.nextInt(500_000)));
+    return item;
+  }
+
+  @FunctionalInterface
+  private interface IndexedFactory<T> {
+    T create(int index);
+  }
+}
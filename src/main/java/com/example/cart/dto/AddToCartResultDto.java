@@ -0,0 +1,12 @@
+package com.example.cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AddToCartResultDto {
+  private final Long cartId;
+  private final int addedLines;
+  private final int incrementedLines;
+}
@@ -0,0 +1,15 @@
+package com.example.cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartItemQuantityDto {
+  private Long productId;
+  private int quantity;
+}
@@ -0,0 +1,11 @@
+package com.example.cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ImportErrorDto {
+  private final long line;
+  private final String message;
+}
@@ -0,0 +1,17 @@
+package com.example.cart.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ImportReport {
+  private final String table;
+  private final long rows;
+  private final long imported;
+  private final long failed;
+  private final long millis;
+  private final long rowsPerSecond;
+  private final List<ImportErrorDto> errors;
+}
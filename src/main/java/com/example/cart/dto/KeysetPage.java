@@ -0,0 +1,14 @@
+package com.example.cart.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class KeysetPage<T> {
+  private final List<T> items;
+  private final String previousCursor;
+  private final String nextCursor;
+  private final int size;
+}
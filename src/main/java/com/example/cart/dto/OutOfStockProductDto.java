@@ -0,0 +1,12 @@
+package com.example.cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class OutOfStockProductDto {
+  private final Long productId;
+  private final String name;
+  private final String category;
+}
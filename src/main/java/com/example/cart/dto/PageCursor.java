@@ -0,0 +1,16 @@
+package com.example.cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+  private final String after;
+  private final String before;
+  private final String size;
+
+  public static PageCursor first() {
+    return new PageCursor(null, null, null);
+  }
+}
@@ -0,0 +1,13 @@
+package com.example.cart.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PriceBucketDto {
+  private final BigDecimal from;
+  private final BigDecimal to;
+  private final long products;
+}
@@ -0,0 +1,15 @@
+package com.example.cart.dto;
+
+import com.example.cart.model.DiscountType;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PromoCodeDto {
+  private final String code;
+  private final DiscountType discountType;
+  private final BigDecimal discountValue;
+  private final String applicableCategory;
+}
@@ -0,0 +1,16 @@
+package com.example.cart.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CartChangedEvent implements DataChangedEvent {
+  private final CartState before;
+  private final CartState after;
+
+  @Override
+  public DataTable getTable() {
+    return DataTable.CARTS;
+  }
+}
@@ -0,0 +1,16 @@
+package com.example.cart.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CartItemChangedEvent implements DataChangedEvent {
+  private final CartItemState before;
+  private final CartItemState after;
+
+  @Override
+  public DataTable getTable() {
+    return DataTable.CART_ITEMS;
+  }
+}
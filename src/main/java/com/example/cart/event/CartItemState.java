@@ -0,0 +1,26 @@
+package com.example.cart.event;
+
+import com.example.cart.model.CartItem;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CartItemState {
+  private final Long cartItemId;
+  private final Long cartId;
+  private final Long sourceProductId;
+  private final String name;
+  private final String category;
+  private final int quantity;
+
+  public static CartItemState of(CartItem item) {
+    return new CartItemState(
+        item.getCartItemId(),
+        item.getCart() == null ? null : item.getCart().getCartId(),
+        item.getSourceProductId(),
+        item.getName(),
+        item.getCategory(),
+        item.getQuantity());
+  }
+}
@@ -0,0 +1,22 @@
+package com.example.cart.event;
+
+import com.example.cart.model.Cart;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CartState {
+  private final Long cartId;
+  private final Long customerId;
+  private final String customerEmail;
+  private final boolean active;
+
+  public static CartState of(Cart cart) {
+    return new CartState(
+        cart.getCartId(),
+        cart.getCustomer() == null ? null : cart.getCustomer().getCustomerId(),
+        cart.getCustomer() == null ? null : cart.getCustomer().getEmail(),
+        cart.isActive());
+  }
+}
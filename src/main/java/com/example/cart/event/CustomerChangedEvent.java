@@ -0,0 +1,16 @@
+package com.example.cart.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CustomerChangedEvent implements DataChangedEvent {
+  private final CustomerState before;
+  private final CustomerState after;
+
+  @Override
+  public DataTable getTable() {
+    return DataTable.CUSTOMERS;
+  }
+}
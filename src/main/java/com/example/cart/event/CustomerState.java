@@ -0,0 +1,16 @@
+package com.example.cart.event;
+
+import com.example.cart.model.Customer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CustomerState {
+  private final Long customerId;
+  private final String email;
+
+  public static CustomerState of(Customer customer) {
+    return new CustomerState(customer.getCustomerId(), customer.getEmail());
+  }
+}
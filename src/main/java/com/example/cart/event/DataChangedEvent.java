@@ -0,0 +1,5 @@
+package com.example.cart.event;
+
+public interface DataChangedEvent {
+  DataTable getTable();
+}
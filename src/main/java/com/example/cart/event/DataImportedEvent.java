@@ -0,0 +1,10 @@
+package com.example.cart.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DataImportedEvent implements DataChangedEvent {
+  private final DataTable table;
+}
@@ -0,0 +1,9 @@
+package com.example.cart.event;
+
+public enum DataTable {
+  CUSTOMERS,
+  PRODUCTS,
+  CARTS,
+  CART_ITEMS,
+  PROMO_CODES
+}
@@ -0,0 +1,16 @@
+package com.example.cart.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent implements DataChangedEvent {
+  private final ProductState before;
+  private final ProductState after;
+
+  @Override
+  public DataTable getTable() {
+    return DataTable.PRODUCTS;
+  }
+}
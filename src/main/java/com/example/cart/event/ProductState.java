@@ -0,0 +1,25 @@
+package com.example.cart.event;
+
+import com.example.cart.model.Product;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProductState {
+  private final Long productId;
+  private final String name;
+  private final String category;
+  private final BigDecimal basePrice;
+  private final boolean inStock;
+
+  public static ProductState of(Product product) {
+    return new ProductState(
+        product.getProductId(),
+        product.getName(),
+        product.getCategory(),
+        product.getBasePrice(),
+        product.isInStock());
+  }
+}
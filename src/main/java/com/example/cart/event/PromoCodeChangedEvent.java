@@ -0,0 +1,16 @@
+package com.example.cart.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PromoCodeChangedEvent implements DataChangedEvent {
+  private final PromoCodeState before;
+  private final PromoCodeState after;
+
+  @Override
+  public DataTable getTable() {
+    return DataTable.PROMO_CODES;
+  }
+}
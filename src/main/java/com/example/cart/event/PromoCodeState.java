@@ -0,0 +1,26 @@
+package com.example.cart.event;
+
+import com.example.cart.model.DiscountType;
+import com.example.cart.model.PromoCode;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PromoCodeState {
+  private final String code;
+  private final DiscountType discountType;
+  private final BigDecimal discountValue;
+  private final boolean active;
+  private final String applicableCategory;
+
+  public static PromoCodeState of(PromoCode promoCode) {
+    return new PromoCodeState(
+        promoCode.getCode(),
+        promoCode.getDiscountType(),
+        promoCode.getDiscountValue(),
+        promoCode.isActive(),
+        promoCode.getApplicableCategory());
+  }
+}
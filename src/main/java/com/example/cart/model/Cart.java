@@ -7,6 +7,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -17,9 +18,16 @@ import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 @Entity
-@Table(name = "carts")
+@Table(
+    name = "carts",
+    indexes = {
+        @Index(name = "idx_carts_active_customer", columnList = "is_active, customer_id"),
+        @Index(name = "idx_carts_customer", columnList = "customer_id"),
+        @Index(name = "idx_carts_promo_code", columnList = "promo_code")
+    })
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -41,6 +49,7 @@ public class Cart {
   private String promoCode;
 
   @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
+  @BatchSize(size = 100)
   private List<CartItem> items = new ArrayList<>();
 
   public String getEntityLabel() {
@@ -1,24 +1,39 @@
 package com.example.cart.model;
 
+import com.example.cart.event.ProductState;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.PrimaryKeyJoinColumn;
 import jakarta.persistence.Table;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "cart_items")
-@PrimaryKeyJoinColumn(name = "product_id")
+@Table(
+    name = "cart_items",
+    indexes = {
+        @Index(name = "idx_cart_items_cart", columnList = "cart_id"),
+        @Index(name = "idx_cart_items_product_quantity", columnList = "source_product_id, name, quantity"),
+        @Index(name = "idx_cart_items_category", columnList = "category, quantity")
+    })
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
-public class CartItem extends Product {
+public class CartItem {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "cart_item_id")
+  private Long cartItemId;
+
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "cart_id")
   private Cart cart;
@@ -26,6 +41,15 @@ public class CartItem extends Product {
   @Column(name = "source_product_id")
   private Long sourceProductId;
 
+  private String name;
+
+  private String category;
+
+  private BigDecimal basePrice;
+
+  @Column(name = "in_stock")
+  private boolean inStock;
+
   private int quantity;
 
   private LocalDateTime addedDate;
@@ -38,15 +62,15 @@ public class CartItem extends Product {
     this.cart = cart;
   }
 
-  public void updateProductSnapshot(Product product) {
+  public void updateProductSnapshot(ProductState product) {
     if (product == null) {
       throw new IllegalArgumentException("Product is required");
     }
     this.sourceProductId = product.getProductId();
-    setName(product.getName());
-    setCategory(product.getCategory());
-    setBasePrice(product.getBasePrice());
-    setInStock(product.isInStock());
+    this.name = product.getName();
+    this.category = product.getCategory();
+    this.basePrice = product.getBasePrice();
+    this.inStock = product.isInStock();
   }
 
   public void updateQuantity(int quantity) {
@@ -59,9 +83,5 @@ public class CartItem extends Product {
   public void updateAddedDate(LocalDateTime addedDate) {
     this.addedDate = addedDate;
   }
-
-  public Long getCartItemId() {
-    return getProductId();
-  }
 }
 
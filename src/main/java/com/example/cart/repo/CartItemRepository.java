@@ -1,8 +1,36 @@
 package com.example.cart.repo;
 
+import com.example.cart.dto.CategoryCountDto;
+import com.example.cart.dto.ProductCountDto;
 import com.example.cart.model.CartItem;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+public interface CartItemRepository extends JpaRepository<CartItem, Long>, JpaSpecificationExecutor<CartItem> {
   boolean existsByCart_CartId(Long cartId);
+
+  List<CartItem> findByCart_CartIdAndSourceProductIdInOrderByCartItemIdAsc(Long cartId, Collection<Long> productIds);
+
+  @Query("select i.cart.cartId from CartItem i where i.cartItemId = :id")
+  Optional<Long> findCartIdById(@Param("id") Long cartItemId);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update CartItem i set i.quantity = i.quantity + :delta where i.cartItemId = :id")
+  int incrementQuantity(@Param("id") Long cartItemId, @Param("delta") int delta);
+
+  @Query("select new com.example.cart.dto.ProductCountDto(i.sourceProductId, i.name, sum(i.quantity)) "
+      + "from CartItem i where i.sourceProductId is not null "
+      + "group by i.sourceProductId, i.name")
+  List<ProductCountDto> sumQuantityByProductAndName();
+
+  @Query("select new com.example.cart.dto.CategoryCountDto(i.category, sum(i.quantity)) "
+      + "from CartItem i where i.category is not null "
+      + "group by i.category")
+  List<CategoryCountDto> sumQuantityByCategory();
 }
@@ -1,11 +1,41 @@
 package com.example.cart.repo;
 
+import com.example.cart.dto.CustomerCartCountDto;
 import com.example.cart.model.Cart;
+import jakarta.persistence.LockModeType;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface CartRepository extends JpaRepository<Cart, Long> {
+public interface CartRepository extends JpaRepository<Cart, Long>, JpaSpecificationExecutor<Cart> {
   List<Cart> findByActiveTrue();
 
+  @EntityGraph(attributePaths = "items")
+  @Query("select c from Cart c where c.active = true")
+  List<Cart> findActiveWithItems();
+
+  @Query("select new com.example.cart.dto.CustomerCartCountDto(cu.customerId, cu.email, count(c)) "
+      + "from Cart c join c.customer cu where c.active = true "
+      + "group by cu.customerId, cu.email")
+  List<CustomerCartCountDto> countActiveByCustomer();
+
+  @EntityGraph(attributePaths = "items")
+  @Query("select c from Cart c")
+  List<Cart> findAllWithItems();
+
+  @EntityGraph(attributePaths = "items")
+  // ">= ''" keeps the same rows as "is not null" but can range-scan idx_carts_promo_code.
+  @Query("select c from Cart c where c.promoCode >= ''")
+  List<Cart> findPromoCartsWithItems();
+
   boolean existsByCustomer_CustomerId(Long customerId);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select c from Cart c where c.cartId = :id")
+  Optional<Cart> findByIdForUpdate(@Param("id") Long id);
 }
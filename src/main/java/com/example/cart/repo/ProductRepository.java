@@ -1,20 +1,19 @@
 package com.example.cart.repo;
 
 import com.example.cart.model.Product;
+import jakarta.persistence.QueryHint;
 import java.util.List;
-import java.util.Optional;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
-  @Query("select p from Product p where type(p) = Product")
-  List<Product> findAllProducts();
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+  @Override
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS"))
+  List<Product> findAll();
 
-  @Query("select p from Product p where type(p) = Product and p.productId = :id")
-  Optional<Product> findProductById(@Param("id") Long id);
-
-  @Query("select case when count(p) > 0 then true else false end "
-      + "from Product p where type(p) = Product and p.productId = :id")
-  boolean existsProductById(@Param("id") Long id);
+  @Query("select distinct p.category from Product p where p.category is not null")
+  List<String> findDistinctCategories();
 }
@@ -1,9 +1,22 @@
 package com.example.cart.repo;
 
 import com.example.cart.model.PromoCode;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface PromoCodeRepository extends JpaRepository<PromoCode, String> {
+public interface PromoCodeRepository extends JpaRepository<PromoCode, String>, JpaSpecificationExecutor<PromoCode> {
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   List<PromoCode> findByActiveTrue();
+
+  @Override
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+  List<PromoCode> findAll();
+
+  @Override
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+  List<PromoCode> findAllById(Iterable<String> codes);
 }
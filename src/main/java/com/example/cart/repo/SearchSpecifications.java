@@ -0,0 +1,87 @@
+package com.example.cart.repo;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import java.util.Collection;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class SearchSpecifications {
+  private static final char LIKE_ESCAPE = '!';
+
+  private SearchSpecifications() {
+  }
+
+  public static <T> Specification<T> containsIgnoreCase(String attribute, String needle) {
+    if (needle == null || needle.isBlank()) {
+      return null;
+    }
+    String pattern = "%" + escapeLike(needle.trim().toLowerCase()) + "%";
+    return (root, query, cb) -> cb.like(cb.lower(path(root, attribute)), pattern, LIKE_ESCAPE);
+  }
+
+  public static <T> Specification<T> equalTo(String attribute, Object value) {
+    if (value == null) {
+      return null;
+    }
+    return (root, query, cb) -> cb.equal(path(root, attribute), value);
+  }
+
+  public static <T, V extends Comparable<? super V>> Specification<T> atLeast(String attribute, V value) {
+    if (value == null) {
+      return null;
+    }
+    return (root, query, cb) -> cb.greaterThanOrEqualTo(path(root, attribute), value);
+  }
+
+  public static <T, V extends Comparable<? super V>> Specification<T> atMost(String attribute, V value) {
+    if (value == null) {
+      return null;
+    }
+    return (root, query, cb) -> cb.lessThanOrEqualTo(path(root, attribute), value);
+  }
+
+  public static <T, V extends Comparable<? super V>> Specification<T> greaterThan(String attribute, V value) {
+    if (value == null) {
+      return null;
+    }
+    return (root, query, cb) -> cb.greaterThan(path(root, attribute), value);
+  }
+
+  public static <T, V extends Comparable<? super V>> Specification<T> lessThan(String attribute, V value) {
+    if (value == null) {
+      return null;
+    }
+    return (root, query, cb) -> cb.lessThan(path(root, attribute), value);
+  }
+
+  public static <T> Specification<T> keyIn(String attribute, Collection<?> keys) {
+    if (keys == null) {
+      return null;
+    }
+    if (keys.isEmpty()) {
+      return (root, query, cb) -> cb.disjunction();
+    }
+    return (root, query, cb) -> path(root, attribute).in(keys);
+  }
+
+  private static <T, Y> Path<Y> path(Root<T> root, String attribute) {
+    Path<?> path = root;
+    for (String part : attribute.split("\\.")) {
+      path = path.get(part);
+    }
+    @SuppressWarnings("unchecked")
+    Path<Y> typed = (Path<Y>) path;
+    return typed;
+  }
+
+  private static String escapeLike(String value) {
+    StringBuilder escaped = new StringBuilder(value.length());
+    for (char c : value.toCharArray()) {
+      if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+        escaped.append(LIKE_ESCAPE);
+      }
+      escaped.append(c);
+    }
+    return escaped.toString();
+  }
+}
@@ -0,0 +1,312 @@
+package com.example.cart.service;
+
+import com.example.cart.dto.CategoryCountDto;
+import com.example.cart.dto.CustomerCartCountDto;
+import com.example.cart.dto.ProductCountDto;
+import com.example.cart.event.CartChangedEvent;
+import com.example.cart.event.CartItemChangedEvent;
+import com.example.cart.event.CartItemState;
+import com.example.cart.event.CartState;
+import com.example.cart.event.CustomerChangedEvent;
+import com.example.cart.event.DataImportedEvent;
+import com.example.cart.event.DataTable;
+import com.example.cart.repo.CartItemRepository;
+import com.example.cart.repo.CartRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Component
+public class AnalyticsAggregateStore extends AnalyticsBase {
+  private static final Comparator<Map.Entry<Long, Long>> PRODUCT_RANKING =
+      Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder())
+          .thenComparing(Map.Entry.comparingByKey());
+
+  private final CartItemRepository cartItemRepository;
+  private final CartRepository cartRepository;
+  private final TransactionTemplate reloadTransaction;
+  private final ReentrantReadWriteLock commitGate = new ReentrantReadWriteLock();
+
+  private Aggregates aggregates;
+
+  public AnalyticsAggregateStore(
+      CartItemRepository cartItemRepository,
+      CartRepository cartRepository,
+      PlatformTransactionManager transactionManager) {
+    this.cartItemRepository = cartItemRepository;
+    this.cartRepository = cartRepository;
+    this.reloadTransaction = new TransactionTemplate(transactionManager);
+    reloadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    reloadTransaction.setReadOnly(true);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void seed() {
+    reload(false);
+  }
+
+  public List<ProductCountDto> topProducts(int limit) {
+    if (limit <= 0) {
+      return List.of();
+    }
+    ensureLoaded();
+    synchronized (this) {
+      return topProducts(aggregates, limit);
+    }
+  }
+
+  private List<ProductCountDto> topProducts(Aggregates current, int limit) {
+    PriorityQueue<Map.Entry<Long, Long>> heap = new PriorityQueue<>(
+        Math.min(limit, current.productQuantities.size()) + 1,
+        PRODUCT_RANKING.reversed());
+    for (Map.Entry<Long, Long> entry : current.productQuantities.entrySet()) {
+      if (heap.size() < limit) {
+        heap.offer(entry);
+      } else if (PRODUCT_RANKING.compare(entry, heap.peek()) < 0) {
+        heap.poll();
+        heap.offer(entry);
+      }
+    }
+
+    List<Map.Entry<Long, Long>> top = new ArrayList<>(heap);
+    top.sort(PRODUCT_RANKING);
+    return top.stream()
+        .map(entry -> new ProductCountDto(
+            entry.getKey(),
+            current.productName(entry.getKey()),
+            entry.getValue()))
+        .toList();
+  }
+
+  public List<CategoryCountDto> categoryCounts() {
+    ensureLoaded();
+    synchronized (this) {
+      return aggregates.categoryQuantities.entrySet().stream()
+          .map(entry -> new CategoryCountDto(entry.getKey(), entry.getValue()))
+          .toList();
+    }
+  }
+
+  public List<CustomerCartCountDto> activeCartCounts() {
+    ensureLoaded();
+    synchronized (this) {
+      return aggregates.activeCarts.entrySet().stream()
+          .map(entry -> new CustomerCartCountDto(
+              entry.getKey(),
+              aggregates.customerEmails.get(entry.getKey()),
+              entry.getValue()))
+          .toList();
+    }
+  }
+
+  @EventListener
+  public void onCartItemChanged(CartItemChangedEvent event) {
+    applyAfterCommit(() -> {
+      if (event.getBefore() != null) {
+        applyCartItem(event.getBefore(), -1);
+      }
+      if (event.getAfter() != null) {
+        applyCartItem(event.getAfter(), 1);
+      }
+    });
+  }
+
+  @EventListener
+  public void onCartChanged(CartChangedEvent event) {
+    applyAfterCommit(() -> {
+      if (event.getBefore() != null) {
+        applyCart(event.getBefore(), -1);
+      }
+      if (event.getAfter() != null) {
+        applyCart(event.getAfter(), 1);
+      }
+    });
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onCustomerChanged(CustomerChangedEvent event) {
+    if (aggregates == null || event.getAfter() == null) {
+      return;
+    }
+    aggregates.customerEmails.computeIfPresent(
+        event.getAfter().getCustomerId(),
+        (id, email) -> event.getAfter().getEmail());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDataImported(DataImportedEvent event) {
+    if (event.getTable() != DataTable.PRODUCTS && event.getTable() != DataTable.PROMO_CODES) {
+      reload(false);
+    }
+  }
+
+  @Scheduled(
+      initialDelayString = "${analytics.aggregates.reconcile-interval:PT15M}",
+      fixedDelayString = "${analytics.aggregates.reconcile-interval:PT15M}")
+  public void scheduledReconcile() {
+    reconcile();
+  }
+
+  public boolean reconcile() {
+    return reload(true);
+  }
+
+  private void ensureLoaded() {
+    boolean loaded;
+    synchronized (this) {
+      loaded = aggregates != null;
+    }
+    if (!loaded) {
+      reload(false);
+    }
+  }
+
+  private boolean reload(boolean reconcile) {
+    if (commitGate.getReadHoldCount() > 0) {
+      throw new IllegalStateException("Analytics aggregates cannot be reloaded inside an uncommitted cart change");
+    }
+    return reloadTransaction.execute(status -> {
+      commitGate.writeLock().lock();
+      try {
+        Aggregates loaded = loadFromDatabase();
+        synchronized (this) {
+          boolean consistent = aggregates != null && aggregates.sameCountsAs(loaded);
+          if (reconcile && !consistent && aggregates != null) {
+            log.warn("Analytics aggregates drifted from the database, replacing them with a full recompute");
+          }
+          aggregates = loaded;
+          return consistent;
+        }
+      } finally {
+        commitGate.writeLock().unlock();
+      }
+    });
+  }
+
+  private void applyAfterCommit(Runnable delta) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      applyNow(delta);
+      return;
+    }
+    commitGate.readLock().lock();
+    try {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          try {
+            if (status == STATUS_COMMITTED) {
+              applyNow(delta);
+            }
+          } finally {
+            commitGate.readLock().unlock();
+          }
+        }
+      });
+    } catch (RuntimeException ex) {
+      commitGate.readLock().unlock();
+      throw ex;
+    }
+  }
+
+  private synchronized void applyNow(Runnable delta) {
+    if (aggregates != null) {
+      delta.run();
+    }
+  }
+
+  private Aggregates loadFromDatabase() {
+    Aggregates loaded = new Aggregates();
+    for (ProductCountDto row : cartItemRepository.sumQuantityByProductAndName()) {
+      add(loaded.productQuantities, row.getProductId(), row.getTotalQuantity());
+      if (row.getName() != null) {
+        add(loaded.namesOf(row.getProductId()), row.getName(), row.getTotalQuantity());
+      }
+    }
+    for (CategoryCountDto row : cartItemRepository.sumQuantityByCategory()) {
+      add(loaded.categoryQuantities, normalizeCategory(row.getCategory()), row.getTotalQuantity());
+    }
+    for (CustomerCartCountDto row : cartRepository.countActiveByCustomer()) {
+      loaded.activeCarts.put(row.getCustomerId(), row.getActiveCarts());
+      loaded.customerEmails.put(row.getCustomerId(), row.getEmail());
+    }
+    return loaded;
+  }
+
+  private void applyCartItem(CartItemState item, long sign) {
+    long delta = sign * item.getQuantity();
+    if (item.getSourceProductId() != null) {
+      add(aggregates.productQuantities, item.getSourceProductId(), delta);
+      if (item.getName() != null) {
+        Map<String, Long> names = aggregates.namesOf(item.getSourceProductId());
+        add(names, item.getName(), delta);
+        if (names.isEmpty()) {
+          aggregates.productNames.remove(item.getSourceProductId());
+        }
+      }
+    }
+    if (item.getCategory() != null) {
+      add(aggregates.categoryQuantities, normalizeCategory(item.getCategory()), delta);
+    }
+  }
+
+  private void applyCart(CartState cart, long sign) {
+    if (!cart.isActive() || cart.getCustomerId() == null) {
+      return;
+    }
+    add(aggregates.activeCarts, cart.getCustomerId(), sign);
+    if (!aggregates.activeCarts.containsKey(cart.getCustomerId())) {
+      aggregates.customerEmails.remove(cart.getCustomerId());
+    } else if (sign > 0) {
+      aggregates.customerEmails.put(cart.getCustomerId(), cart.getCustomerEmail());
+    }
+  }
+
+  private static <K> void add(Map<K, Long> map, K key, long delta) {
+    Long updated = map.merge(key, delta, Long::sum);
+    if (Objects.equals(updated, 0L)) {
+      map.remove(key);
+    }
+  }
+
+  private static final class Aggregates {
+    private final Map<Long, Long> productQuantities = new HashMap<>();
+    private final Map<Long, TreeMap<String, Long>> productNames = new HashMap<>();
+    private final Map<String, Long> categoryQuantities = new HashMap<>();
+    private final Map<Long, Long> activeCarts = new HashMap<>();
+    private final Map<Long, String> customerEmails = new HashMap<>();
+
+    private boolean sameCountsAs(Aggregates other) {
+      return productQuantities.equals(other.productQuantities)
+          && productNames.equals(other.productNames)
+          && categoryQuantities.equals(other.categoryQuantities)
+          && activeCarts.equals(other.activeCarts);
+    }
+
+    private TreeMap<String, Long> namesOf(Long productId) {
+      return productNames.computeIfAbsent(productId, id -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER));
+    }
+
+    private String productName(Long productId) {
+      TreeMap<String, Long> names = productNames.get(productId);
+      return names == null ? null : names.firstKey();
+    }
+  }
+}
@@ -1,10 +1,13 @@
 package com.example.cart.service;
 
+import java.util.Locale;
+
 public abstract class AnalyticsBase implements CategoryNormalizer {
   public String normalizeCategory(String category) {
     if (category == null || category.isBlank()) {
       return "UNSPECIFIED";
     }
-    return category;
+    // MySQL's case-insensitive collation already groups "Books" with "books"; fold the same way here.
+    return category.toLowerCase(Locale.ROOT);
   }
 }
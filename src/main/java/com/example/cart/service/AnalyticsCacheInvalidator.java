@@ -0,0 +1,35 @@
+package com.example.cart.service;
+
+import com.example.cart.event.DataChangedEvent;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class AnalyticsCacheInvalidator {
+  private final CacheManager cacheManager;
+  private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+  // Part of the cache key: a reader that started before the commit stores its result under
+  // the previous version, so a late put cannot shadow the fresh value.
+  public long version(String cacheName) {
+    return versions.computeIfAbsent(cacheName, name -> new AtomicLong()).get();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDataChanged(DataChangedEvent event) {
+    for (String name : AnalyticsCaches.dependentOn(event.getTable())) {
+      versions.computeIfAbsent(name, key -> new AtomicLong()).incrementAndGet();
+      Cache cache = cacheManager.getCache(name);
+      if (cache != null) {
+        cache.clear();
+      }
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.example.cart.service;
+
+import com.example.cart.event.DataTable;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+final class AnalyticsCaches {
+  static final String ACTIVE_CART_TOTALS = "activeCartTotals";
+  static final String FINAL_TOTALS_WITH_PROMO = "finalTotalsWithPromo";
+  static final String UNUSED_PROMO_CODES = "unusedPromoCodes";
+  static final String PROMO_DISCOUNT_SUMMARY = "promoDiscountSummary";
+  static final String OUT_OF_STOCK_PRODUCTS = "outOfStockProducts";
+  static final String WEIGHTED_EFFICIENCY = "weightedEfficiency";
+  static final String VERSIONED_KEY = "@analyticsCacheInvalidator.version(#root.caches[0].name)";
+
+  private static final Map<DataTable, List<String>> DEPENDENCIES = new EnumMap<>(Map.of(
+      DataTable.CUSTOMERS, List.of(),
+      DataTable.PRODUCTS, List.of(),
+      DataTable.CARTS, List.of(
+          ACTIVE_CART_TOTALS,
+          FINAL_TOTALS_WITH_PROMO,
+          UNUSED_PROMO_CODES,
+          PROMO_DISCOUNT_SUMMARY,
+          OUT_OF_STOCK_PRODUCTS,
+          WEIGHTED_EFFICIENCY),
+      DataTable.CART_ITEMS, List.of(
+          ACTIVE_CART_TOTALS,
+          FINAL_TOTALS_WITH_PROMO,
+          PROMO_DISCOUNT_SUMMARY,
+          OUT_OF_STOCK_PRODUCTS,
+          WEIGHTED_EFFICIENCY),
+      DataTable.PROMO_CODES, List.of(
+          FINAL_TOTALS_WITH_PROMO,
+          UNUSED_PROMO_CODES,
+          PROMO_DISCOUNT_SUMMARY)));
+
+  private AnalyticsCaches() {
+  }
+
+  static List<String> dependentOn(DataTable table) {
+    return DEPENDENCIES.getOrDefault(table, List.of());
+  }
+}
@@ -0,0 +1,13 @@
+package com.example.cart.service;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AnalyticsDashboard {
+  private final Map<String, Object> results;
+  private final List<String> unavailable;
+}
@@ -0,0 +1,132 @@
+package com.example.cart.service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AnalyticsDashboardService {
+  private final CartAnalyticsService analytics;
+  private final Duration timeout;
+  private final ExecutorService executor;
+
+  public AnalyticsDashboardService(
+      CartAnalyticsService analytics,
+      @Value("${analytics.dashboard.threads:4}") int threads,
+      @Value("${analytics.dashboard.queue-capacity:32}") int queueCapacity,
+      @Value("${analytics.dashboard.timeout:PT10S}") Duration timeout) {
+    this.analytics = analytics;
+    this.timeout = timeout;
+    this.executor = new ThreadPoolExecutor(
+        threads,
+        threads,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        new CustomizableThreadFactory("analytics-dashboard-"),
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  public AnalyticsDashboard build() {
+    Future<AnalyticsSnapshot> snapshot = submit(analytics::loadSnapshot);
+
+    Map<String, Section> sections = new LinkedHashMap<>();
+    sections.put("activeCartTotals", section(
+        "Суммы активных корзин",
+        () -> analytics.calculateActiveCartTotals(snapshot.get())));
+    sections.put("topProducts", section(
+        "Топ-5 товаров по добавлениям",
+        analytics::top5ProductsByAdditions));
+    sections.put("activeCartsPerCustomer", section(
+        "Активные корзины по покупателям",
+        analytics::activeCartCountPerCustomer));
+    sections.put("categoryCounts", section(
+        "Количество по категориям",
+        analytics::categoryItemCounts));
+    sections.put("finalTotalsWithPromo", section(
+        "Итоги с промокодом",
+        () -> analytics.finalTotalsWithPromo(snapshot.get())));
+    sections.put("unusedPromos", section(
+        "Активные промокоды без использования",
+        () -> analytics.activePromoCodesNeverUsed(snapshot.get())));
+    sections.put("promoDiscountSummary", section(
+        "Суммарные скидки по промокодам",
+        () -> analytics.totalDiscountIfAppliedToEligibleCarts(snapshot.get())));
+    sections.put("outOfStockProducts", section(
+        "Товары не в наличии в корзинах",
+        analytics::productsInCartsOutOfStock));
+    sections.put("weightedEfficiency", section(
+        "Взвешенная эффективность корзин",
+        () -> analytics.weightedCartEfficiencyScores(snapshot.get())));
+
+    long deadline = System.nanoTime() + timeout.toNanos();
+    Map<String, Object> results = new LinkedHashMap<>();
+    List<String> unavailable = new ArrayList<>();
+    sections.forEach((attribute, section) -> {
+      Object result = await(section.future, deadline);
+      if (result == null) {
+        unavailable.add(section.title);
+      } else {
+        results.put(attribute, result);
+      }
+    });
+    snapshot.cancel(true);
+    return new AnalyticsDashboard(results, unavailable);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private Section section(String title, Callable<?> task) {
+    return new Section(title, submit(task));
+  }
+
+  private <T> Future<T> submit(Callable<T> task) {
+    try {
+      return executor.submit(task);
+    } catch (RejectedExecutionException ex) {
+      return CompletableFuture.failedFuture(ex);
+    }
+  }
+
+  private Object await(Future<?> future, long deadline) {
+    try {
+      return future.get(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException | CancellationException ex) {
+      // Section is reported as unavailable.
+    }
+    future.cancel(true);
+    return null;
+  }
+
+  private static final class Section {
+    private final String title;
+    private final Future<?> future;
+
+    private Section(String title, Future<?> future) {
+      this.title = title;
+      this.future = future;
+    }
+  }
+}
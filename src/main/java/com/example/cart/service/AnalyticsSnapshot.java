@@ -0,0 +1,14 @@
+package com.example.cart.service;
+
+import com.example.cart.model.Cart;
+import com.example.cart.model.PromoCode;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AnalyticsSnapshot {
+  private final List<Cart> carts;
+  private final List<PromoCode> promoCodes;
+}
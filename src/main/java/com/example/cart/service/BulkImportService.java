@@ -0,0 +1,330 @@
+package com.example.cart.service;
+
+import com.example.cart.dto.ImportErrorDto;
+import com.example.cart.dto.ImportReport;
+import com.example.cart.event.DataImportedEvent;
+import com.example.cart.event.DataTable;
+import com.example.cart.model.DiscountType;
+import com.example.cart.model.LoyaltyLevel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class BulkImportService {
+  static final int MAX_REPORTED_ERRORS = 1000;
+
+  private static final Map<DataTable, Target> TARGETS = Map.of(
+      DataTable.CUSTOMERS, new Target(
+          "customers", "customer_id", List.of("email", "registration_date", "loyalty_level")),
+      DataTable.PRODUCTS, new Target(
+          "products", "product_id", List.of("name", "category", "base_price", "in_stock")),
+      DataTable.CARTS, new Target(
+          "carts", "cart_id", List.of("customer_id", "created_date", "is_active", "promo_code")),
+      DataTable.CART_ITEMS, new Target(
+          "cart_items", "cart_item_id", List.of("cart_id", "source_product_id", "name", "category", "base_price",
+              "in_stock", "quantity", "added_date")),
+      DataTable.PROMO_CODES, new Target(
+          "promo_codes", null, List.of("code", "discount_type", "discount_value", "active", "applicable_category")));
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedJdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ObjectMapper objectMapper;
+  private final int chunkSize;
+
+  public BulkImportService(
+      JdbcTemplate jdbcTemplate,
+      NamedParameterJdbcTemplate namedJdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      ApplicationEventPublisher eventPublisher,
+      ObjectMapper objectMapper,
+      @Value("${import.chunk-size:1000}") int chunkSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedJdbcTemplate = namedJdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.eventPublisher = eventPublisher;
+    this.objectMapper = objectMapper;
+    this.chunkSize = chunkSize;
+  }
+
+  public synchronized ImportReport importRows(DataTable table, boolean ndjson, InputStream input)
+      throws IOException {
+    long started = System.nanoTime();
+    BufferedReader text = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    ImportReader reader = ndjson ? new NdjsonImportReader(text, objectMapper) : new CsvImportReader(text);
+    Progress progress = new Progress();
+    List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+    try {
+      while (true) {
+        ImportRecord record;
+        try {
+          record = reader.next();
+        } catch (ImportRowException ex) {
+          progress.rows++;
+          progress.fail(ex.getLine(), ex.getMessage());
+          continue;
+        }
+        if (record == null) {
+          break;
+        }
+        progress.rows++;
+        chunk.add(record);
+        if (chunk.size() == chunkSize) {
+          importChunk(table, chunk, progress);
+          chunk.clear();
+        }
+      }
+      if (!chunk.isEmpty()) {
+        importChunk(table, chunk, progress);
+      }
+    } finally {
+      if (progress.imported > 0) {
+        eventPublisher.publishEvent(new DataImportedEvent(table));
+      }
+    }
+
+    long millis = Math.max((System.nanoTime() - started) / 1_000_000, 1);
+    return new ImportReport(
+        table.name().toLowerCase(),
+        progress.rows,
+        progress.imported,
+        progress.failed,
+        millis,
+        progress.imported * 1000 / millis,
+        progress.errors);
+  }
+
+  private void importChunk(DataTable table, List<ImportRecord> records, Progress progress) {
+    Map<Long, Object[]> products = table == DataTable.CART_ITEMS ? sourceProducts(records) : Map.of();
+    List<ImportRow> rows = new ArrayList<>(records.size());
+    for (ImportRecord record : records) {
+      try {
+        rows.add(toRow(table, record, products));
+      } catch (IllegalArgumentException | DateTimeParseException ex) {
+        progress.fail(record.getLine(), ex.getMessage());
+      }
+    }
+    if (rows.isEmpty()) {
+      return;
+    }
+
+    Target target = TARGETS.get(table);
+    List<Object[]> withId = new ArrayList<>();
+    List<Object[]> generated = new ArrayList<>();
+    for (ImportRow row : rows) {
+      if (row.id == null && target.hasGeneratedId()) {
+        generated.add(row.values);
+      } else {
+        withId.add(row.withId());
+      }
+    }
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        if (!withId.isEmpty()) {
+          jdbcTemplate.batchUpdate(target.insertWithId(), withId);
+        }
+        if (!generated.isEmpty()) {
+          jdbcTemplate.batchUpdate(target.insertGenerated(), generated);
+        }
+      });
+      progress.imported += rows.size();
+    } catch (DataAccessException batchFailure) {
+      for (ImportRow row : rows) {
+        try {
+          if (row.id == null && target.hasGeneratedId()) {
+            jdbcTemplate.update(target.insertGenerated(), row.values);
+          } else {
+            jdbcTemplate.update(target.insertWithId(), row.withId());
+          }
+          progress.imported++;
+        } catch (DataAccessException ex) {
+          progress.fail(row.line, NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+        }
+      }
+    }
+  }
+
+  private Map<Long, Object[]> sourceProducts(List<ImportRecord> records) {
+    List<Long> ids = new ArrayList<>();
+    for (ImportRecord record : records) {
+      try {
+        Long id = parseLong(record.get("product_id"));
+        if (id != null) {
+          ids.add(id);
+        }
+      } catch (NumberFormatException ignored) {
+        // reported when the row itself is parsed
+      }
+    }
+    Map<Long, Object[]> products = new HashMap<>();
+    if (ids.isEmpty()) {
+      return products;
+    }
+    namedJdbcTemplate.query(
+        "select product_id, name, category, base_price, in_stock from products where product_id in (:ids)",
+        Map.of("ids", ids),
+        rs -> {
+          products.put(rs.getLong(1), new Object[] {
+              rs.getString(2), rs.getString(3), rs.getBigDecimal(4), rs.getBoolean(5)});
+        });
+    return products;
+  }
+
+  private ImportRow toRow(DataTable table, ImportRecord record, Map<Long, Object[]> products) {
+    return switch (table) {
+      case CUSTOMERS -> new ImportRow(record.getLine(), parseLong(record.get("customer_id")), new Object[] {
+          required(record, "email"),
+          record.get("registration_date") == null
+              ? LocalDate.now()
+              : LocalDate.parse(record.get("registration_date")),
+          record.get("loyalty_level") == null
+              ? LoyaltyLevel.BRONZE.name()
+              : LoyaltyLevel.valueOf(record.get("loyalty_level").toUpperCase()).name()});
+      case PRODUCTS -> new ImportRow(record.getLine(), parseLong(record.get("product_id")), new Object[] {
+          required(record, "name"),
+          required(record, "category"),
+          new BigDecimal(required(record, "base_price")),
+          parseBoolean(record, "in_stock")});
+      case CARTS -> new ImportRow(record.getLine(), parseLong(record.get("cart_id")), new Object[] {
+          Long.valueOf(required(record, "customer_id")),
+          record.get("created_date") == null
+              ? LocalDateTime.now()
+              : LocalDateTime.parse(record.get("created_date")),
+          parseBoolean(record, "active"),
+          record.get("promo_code")});
+      case CART_ITEMS -> cartItemRow(record, products);
+      case PROMO_CODES -> new ImportRow(record.getLine(), null, new Object[] {
+          required(record, "code"),
+          DiscountType.valueOf(required(record, "discount_type").toUpperCase()).name(),
+          new BigDecimal(required(record, "discount_value")),
+          parseBoolean(record, "active"),
+          record.get("applicable_category")});
+    };
+  }
+
+  private ImportRow cartItemRow(ImportRecord record, Map<Long, Object[]> products) {
+    Long itemId = parseLong(record.get("cart_item_id"));
+    Long cartId = Long.valueOf(required(record, "cart_id"));
+    Long productId = Long.valueOf(required(record, "product_id"));
+    int quantity = Integer.parseInt(required(record, "quantity"));
+    if (quantity <= 0) {
+      throw new IllegalArgumentException("Количество должно быть больше нуля");
+    }
+    Object[] product = products.get(productId);
+    if (product == null) {
+      throw new IllegalArgumentException("Товар не найден: " + productId);
+    }
+    LocalDateTime addedDate = record.get("added_date") == null
+        ? LocalDateTime.now()
+        : LocalDateTime.parse(record.get("added_date"));
+    return new ImportRow(record.getLine(), itemId, new Object[] {
+        cartId, productId, product[0], product[1], product[2], product[3], quantity, addedDate});
+  }
+
+  private String required(ImportRecord record, String field) {
+    String value = record.get(field);
+    if (value == null) {
+      throw new IllegalArgumentException("Не заполнено поле " + field);
+    }
+    return value;
+  }
+
+  private Long parseLong(String value) {
+    return value == null ? null : Long.valueOf(value);
+  }
+
+  private boolean parseBoolean(ImportRecord record, String field) {
+    String value = record.get(field);
+    if (value == null || value.equalsIgnoreCase("false")) {
+      return false;
+    }
+    if (value.equalsIgnoreCase("true")) {
+      return true;
+    }
+    throw new IllegalArgumentException("Поле " + field + " должно быть true или false: " + value);
+  }
+
+  // Rows without an id leave the column out so the database assigns it; reading max(id) here
+  // would race with concurrent IDENTITY inserts.
+  @AllArgsConstructor
+  private static final class Target {
+    private final String table;
+    private final String idColumn;
+    private final List<String> columns;
+
+    private boolean hasGeneratedId() {
+      return idColumn != null;
+    }
+
+    private String insertWithId() {
+      List<String> all = new ArrayList<>(columns);
+      if (idColumn != null) {
+        all.add(0, idColumn);
+      }
+      return insert(all);
+    }
+
+    private String insertGenerated() {
+      return insert(columns);
+    }
+
+    private String insert(List<String> names) {
+      return "insert into " + table + " (" + String.join(", ", names) + ") values ("
+          + String.join(", ", Collections.nCopies(names.size(), "?")) + ")";
+    }
+  }
+
+  @AllArgsConstructor
+  private static final class ImportRow {
+    private final long line;
+    private final Long id;
+    private final Object[] values;
+
+    private Object[] withId() {
+      if (id == null) {
+        return values;
+      }
+      Object[] args = new Object[values.length + 1];
+      args[0] = id;
+      System.arraycopy(values, 0, args, 1, values.length);
+      return args;
+    }
+  }
+
+  private static final class Progress {
+    private long rows;
+    private long imported;
+    private long failed;
+    private final List<ImportErrorDto> errors = new ArrayList<>();
+
+    private void fail(long line, String message) {
+      failed++;
+      if (errors.size() < MAX_REPORTED_ERRORS) {
+        errors.add(new ImportErrorDto(line, message));
+      }
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.example.cart.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+  @Bean
+  public CacheManagerCustomizer<CaffeineCacheManager> productCatalogCache(
+      @Value("${catalog.cache.max-size:10000}") long maxSize,
+      @Value("${catalog.cache.expire-after-write:PT1H}") Duration expireAfterWrite) {
+    return cacheManager -> cacheManager.registerCustomCache(
+        ProductCatalog.CACHE,
+        Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build());
+  }
+
+  @Bean
+  public MeterBinder cacheHitRatios(CacheManager cacheManager) {
+    return registry -> {
+      for (String name : cacheManager.getCacheNames()) {
+        if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+          Gauge.builder("cache.hit.ratio", cache.getNativeCache(), nativeCache -> nativeCache.stats().hitRate())
+              .tag("name", name)
+              .register(registry);
+        }
+      }
+    };
+  }
+}
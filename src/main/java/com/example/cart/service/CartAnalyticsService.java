@@ -5,26 +5,31 @@ import com.example.cart.dto.CartEfficiencyDto;
 import com.example.cart.dto.CartTotalDto;
 import com.example.cart.dto.CategoryCountDto;
 import com.example.cart.dto.CustomerCartCountDto;
+import com.example.cart.dto.OutOfStockProductDto;
 import com.example.cart.dto.ProductCountDto;
 import com.example.cart.dto.PromoCodeDiscountDto;
+import com.example.cart.dto.PromoCodeDto;
 import com.example.cart.model.Cart;
 import com.example.cart.model.CartItem;
 import com.example.cart.model.DiscountType;
-import com.example.cart.model.Product;
 import com.example.cart.model.PromoCode;
 import com.example.cart.repo.CartItemRepository;
 import com.example.cart.repo.CartRepository;
 import com.example.cart.repo.PromoCodeRepository;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,145 +41,197 @@ public class CartAnalyticsService extends AnalyticsBase {
   private static final BigDecimal WEIGHT_TOTAL = new BigDecimal("0.5");
   private static final BigDecimal WEIGHT_ITEMS = new BigDecimal("0.3");
   private static final BigDecimal WEIGHT_DISTINCT = new BigDecimal("0.2");
+  private static final int RATIO_SCALE = 4;
+  private static final long WEIGHT_TOTAL_TENTHS = 5L;
+  private static final long WEIGHT_ITEMS_TENTHS = 3L;
+  private static final long WEIGHT_DISTINCT_TENTHS = 2L;
 
   private final CartRepository cartRepository;
   private final CartItemRepository cartItemRepository;
   private final PromoCodeRepository promoCodeRepository;
+  private final AnalyticsAggregateStore aggregateStore;
 
+  public AnalyticsSnapshot loadSnapshot() {
+    return new AnalyticsSnapshot(cartRepository.findAllWithItems(), promoCodeRepository.findAll());
+  }
+
+  @Cacheable(cacheNames = AnalyticsCaches.ACTIVE_CART_TOTALS, key = AnalyticsCaches.VERSIONED_KEY)
   public List<CartTotalDto> calculateActiveCartTotals() {
-    return cartRepository.findByActiveTrue().stream()
-        .map(cart -> new CartTotalDto(cart.getCartId(), calculateCartTotal(cart)))
-        .toList();
+    return activeCartTotals(cartRepository.findActiveWithItems());
+  }
+
+  public List<CartTotalDto> calculateActiveCartTotals(AnalyticsSnapshot snapshot) {
+    return activeCartTotals(snapshot.getCarts().stream()
+        .filter(Cart::isActive)
+        .toList());
   }
 
   public List<ProductCountDto> top5ProductsByAdditions() {
-    List<CartItem> items = cartItemRepository.findAll();
-    Map<Long, String> names = new HashMap<>();
-    Map<Long, Long> counts = items.stream()
-        .filter(item -> item.getSourceProductId() != null)
-        .peek(item -> names.putIfAbsent(
-            item.getSourceProductId(),
-            item.getName()))
-        .collect(Collectors.groupingBy(
-            CartItem::getSourceProductId,
-            Collectors.summingLong(CartItem::getQuantity)));
-
-    return counts.entrySet().stream()
-        .sorted(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder()))
-        .limit(5)
-        .map(entry -> new ProductCountDto(
-            entry.getKey(),
-            names.get(entry.getKey()),
-            entry.getValue()))
-        .toList();
+    return topProductsByAdditions(5);
+  }
+
+  public List<ProductCountDto> topProductsByAdditions(int k) {
+    return aggregateStore.topProducts(k);
   }
 
   public List<CustomerCartCountDto> activeCartCountPerCustomer() {
-    List<Cart> activeCarts = cartRepository.findByActiveTrue();
-    Map<Long, Long> counts = activeCarts.stream()
-        .filter(cart -> cart.getCustomer() != null)
-        .collect(Collectors.groupingBy(
-            cart -> cart.getCustomer().getCustomerId(),
-            Collectors.counting()));
-
-    Map<Long, String> emails = activeCarts.stream()
-        .filter(cart -> cart.getCustomer() != null)
-        .collect(Collectors.toMap(
-            cart -> cart.getCustomer().getCustomerId(),
-            cart -> cart.getCustomer().getEmail(),
-            (a, b) -> a));
-
-    return counts.entrySet().stream()
-        .map(entry -> new CustomerCartCountDto(
-            entry.getKey(),
-            emails.get(entry.getKey()),
-            entry.getValue()))
-        .toList();
+    return aggregateStore.activeCartCounts();
   }
 
   public List<CategoryCountDto> categoryItemCounts() {
-    CategoryNormalizer normalizer = this;
-    Map<String, Long> counts = cartItemRepository.findAll().stream()
-        .filter(item -> item.getCategory() != null)
-        .collect(Collectors.groupingBy(
-            item -> normalizer.normalizeCategory(item.getCategory()),
-            Collectors.summingLong(CartItem::getQuantity)));
-
-    return counts.entrySet().stream()
-        .map(entry -> new CategoryCountDto(entry.getKey(), entry.getValue()))
-        .toList();
+    return aggregateStore.categoryCounts();
   }
 
+  @Cacheable(cacheNames = AnalyticsCaches.FINAL_TOTALS_WITH_PROMO, key = AnalyticsCaches.VERSIONED_KEY)
   public List<CartFinalTotalDto> finalTotalsWithPromo() {
-    return cartRepository.findAll().stream()
-        .filter(cart -> cart.getPromoCode() != null && !cart.getPromoCode().isBlank())
-        .map(cart -> {
-          BigDecimal total = calculateCartTotal(cart);
-          PromoCode promo = promoCodeRepository.findById(cart.getPromoCode()).orElse(null);
-          BigDecimal discount = calculateDiscount(cart, promo, true);
-          BigDecimal finalTotal = total.subtract(discount).max(BigDecimal.ZERO);
-          return new CartFinalTotalDto(cart.getCartId(), cart.getPromoCode(), finalTotal);
-        })
-        .toList();
+    List<Cart> carts = withPromoCode(cartRepository.findPromoCartsWithItems());
+    return finalTotals(carts, loadPromoCodes(carts));
   }
 
-  public List<PromoCode> activePromoCodesNeverUsed() {
-    Set<String> usedCodes = cartRepository.findAll().stream()
-        .map(Cart::getPromoCode)
-        .filter(code -> code != null && !code.isBlank())
-        .collect(Collectors.toSet());
+  public List<CartFinalTotalDto> finalTotalsWithPromo(AnalyticsSnapshot snapshot) {
+    return finalTotals(withPromoCode(snapshot.getCarts()), indexPromoCodes(snapshot.getPromoCodes()));
+  }
 
-    return promoCodeRepository.findByActiveTrue().stream()
-        .filter(promo -> !usedCodes.contains(promo.getCode()))
-        .toList();
+  @Cacheable(cacheNames = AnalyticsCaches.UNUSED_PROMO_CODES, key = AnalyticsCaches.VERSIONED_KEY)
+  public List<PromoCodeDto> activePromoCodesNeverUsed() {
+    return unusedPromoCodes(cartRepository.findAll(), promoCodeRepository.findByActiveTrue());
   }
 
+  public List<PromoCodeDto> activePromoCodesNeverUsed(AnalyticsSnapshot snapshot) {
+    return unusedPromoCodes(snapshot.getCarts(), snapshot.getPromoCodes().stream()
+        .filter(PromoCode::isActive)
+        .toList());
+  }
+
+  @Cacheable(cacheNames = AnalyticsCaches.PROMO_DISCOUNT_SUMMARY, key = AnalyticsCaches.VERSIONED_KEY)
   public List<PromoCodeDiscountDto> totalDiscountIfAppliedToEligibleCarts() {
-    List<Cart> carts = cartRepository.findAll();
+    return discountSummary(cartRepository.findAllWithItems(), promoCodeRepository.findAll());
+  }
 
-    return promoCodeRepository.findAll().stream()
-        .map(promo -> {
-          BigDecimal totalDiscount = carts.stream()
-              .map(cart -> calculateDiscount(cart, promo, false))
-              .reduce(BigDecimal.ZERO, BigDecimal::add);
-          return new PromoCodeDiscountDto(promo.getCode(), totalDiscount);
-        })
-        .toList();
+  public List<PromoCodeDiscountDto> totalDiscountIfAppliedToEligibleCarts(AnalyticsSnapshot snapshot) {
+    return discountSummary(snapshot.getCarts(), snapshot.getPromoCodes());
   }
 
-  public List<Product> productsInCartsOutOfStock() {
-    Map<Long, Product> products = cartItemRepository.findAll().stream()
+  @Cacheable(cacheNames = AnalyticsCaches.OUT_OF_STOCK_PRODUCTS, key = AnalyticsCaches.VERSIONED_KEY)
+  public List<OutOfStockProductDto> productsInCartsOutOfStock() {
+    Map<Long, CartItem> products = cartItemRepository.findAll().stream()
         .filter(item -> item.getSourceProductId() != null)
         .filter(item -> !item.isInStock())
         .collect(Collectors.toMap(CartItem::getSourceProductId, item -> item, (a, b) -> a));
 
-    return products.values().stream().toList();
+    return products.values().stream()
+        .map(item -> new OutOfStockProductDto(item.getSourceProductId(), item.getName(), item.getCategory()))
+        .toList();
   }
 
+  @Cacheable(cacheNames = AnalyticsCaches.WEIGHTED_EFFICIENCY, key = AnalyticsCaches.VERSIONED_KEY)
   public List<CartEfficiencyDto> weightedCartEfficiencyScores() {
-    List<Cart> carts = cartRepository.findAll();
+    return weightedScores(cartRepository.findAllWithItems());
+  }
+
+  public List<CartEfficiencyDto> weightedCartEfficiencyScores(AnalyticsSnapshot snapshot) {
+    return weightedScores(snapshot.getCarts());
+  }
+
+  private List<CartTotalDto> activeCartTotals(List<Cart> carts) {
+    return carts.stream()
+        .map(cart -> new CartTotalDto(cart.getCartId(), calculateCartTotal(cart)))
+        .toList();
+  }
+
+  private List<Cart> withPromoCode(List<Cart> carts) {
+    return carts.stream()
+        .filter(cart -> cart.getPromoCode() != null && !cart.getPromoCode().isBlank())
+        .toList();
+  }
+
+  private List<CartFinalTotalDto> finalTotals(List<Cart> carts, Map<String, PromoCode> promos) {
+    return carts.stream()
+        .map(cart -> new CartFinalTotalDto(
+            cart.getCartId(),
+            cart.getPromoCode(),
+            calculateFinalTotal(cart, promos.get(cart.getPromoCode()))))
+        .toList();
+  }
+
+  private List<PromoCodeDto> unusedPromoCodes(List<Cart> carts, List<PromoCode> activePromos) {
+    Set<String> usedCodes = carts.stream()
+        .map(Cart::getPromoCode)
+        .filter(code -> code != null && !code.isBlank())
+        .collect(Collectors.toSet());
+
+    return activePromos.stream()
+        .filter(promo -> !usedCodes.contains(promo.getCode()))
+        .map(promo -> new PromoCodeDto(
+            promo.getCode(),
+            promo.getDiscountType(),
+            promo.getDiscountValue(),
+            promo.getApplicableCategory()))
+        .toList();
+  }
+
+  private List<PromoCodeDiscountDto> discountSummary(List<Cart> carts, List<PromoCode> promos) {
+    try {
+      return discountSummaryInCents(carts, promos);
+    } catch (ArithmeticException ex) {
+      return discountSummaryExact(carts, promos);
+    }
+  }
+
+  private List<CartEfficiencyDto> weightedScores(List<Cart> carts) {
     if (carts.isEmpty()) {
       return List.of();
     }
+    try {
+      return weightedScoresInCents(carts);
+    } catch (ArithmeticException ex) {
+      return weightedScoresExact(carts);
+    }
+  }
+
+  private List<CartEfficiencyDto> weightedScoresInCents(List<Cart> carts) {
+    int size = carts.size();
+    long[] totals = new long[size];
+    long[] itemCounts = new long[size];
+    long[] distinctProducts = new long[size];
+    for (int i = 0; i < size; i++) {
+      Cart cart = carts.get(i);
+      totals[i] = cartTotalCents(cart);
+      itemCounts[i] = countItems(cart);
+      distinctProducts[i] = countDistinctProducts(cart);
+    }
+
+    long maxTotal = Arrays.stream(totals).max().orElse(0L);
+    long maxItems = Arrays.stream(itemCounts).max().orElse(0L);
+    long maxDistinct = Arrays.stream(distinctProducts).max().orElse(0L);
+
+    List<CartEfficiencyDto> scores = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      long weighted = Math.addExact(
+          Math.addExact(
+              Math.multiplyExact(WEIGHT_TOTAL_TENTHS, Cents.ratio(totals[i], maxTotal, RATIO_SCALE)),
+              Math.multiplyExact(WEIGHT_ITEMS_TENTHS, Cents.ratio(itemCounts[i], maxItems, RATIO_SCALE))),
+          Math.multiplyExact(WEIGHT_DISTINCT_TENTHS, Cents.ratio(distinctProducts[i], maxDistinct, RATIO_SCALE)));
+      scores.add(new CartEfficiencyDto(
+          carts.get(i).getCartId(),
+          Cents.toAmount(totals[i]),
+          itemCounts[i],
+          distinctProducts[i],
+          Cents.toAmount(Cents.divideHalfUp(weighted, 10L))));
+    }
+    scores.sort(Comparator.comparing(CartEfficiencyDto::getScore).reversed());
+    return scores;
+  }
 
+  private List<CartEfficiencyDto> weightedScoresExact(List<Cart> carts) {
     Map<Long, BigDecimal> totals = new HashMap<>();
     Map<Long, Long> itemCounts = new HashMap<>();
     Map<Long, Long> distinctProducts = new HashMap<>();
 
     for (Cart cart : carts) {
-      totals.put(cart.getCartId(), calculateCartTotal(cart));
-
-      long items = cart.getItems().stream()
-          .mapToLong(CartItem::getQuantity)
-          .sum();
-      itemCounts.put(cart.getCartId(), items);
-
-      long distinct = cart.getItems().stream()
-          .map(CartItem::getSourceProductId)
-          .filter(Objects::nonNull)
-          .distinct()
-          .count();
-      distinctProducts.put(cart.getCartId(), distinct);
+      totals.put(cart.getCartId(), exactCartTotal(cart));
+      itemCounts.put(cart.getCartId(), countItems(cart));
+      distinctProducts.put(cart.getCartId(), countDistinctProducts(cart));
     }
 
     BigDecimal maxTotal = totals.values().stream()
@@ -205,7 +262,122 @@ public class CartAnalyticsService extends AnalyticsBase {
         .toList();
   }
 
+  private Map<String, PromoCode> loadPromoCodes(List<Cart> carts) {
+    Set<String> codes = carts.stream()
+        .map(Cart::getPromoCode)
+        .collect(Collectors.toSet());
+    if (codes.isEmpty()) {
+      return indexPromoCodes(List.of());
+    }
+    return indexPromoCodes(promoCodeRepository.findAllById(codes));
+  }
+
+  private Map<String, PromoCode> indexPromoCodes(List<PromoCode> promoCodes) {
+    // Case-insensitive to match how findById resolved codes under the default MySQL collation.
+    Map<String, PromoCode> promos = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    promoCodes.forEach(promo -> promos.put(promo.getCode(), promo));
+    return promos;
+  }
+
+  private List<PromoCodeDiscountDto> discountSummaryInCents(List<Cart> carts, List<PromoCode> promos) {
+    List<CartSubtotals> subtotals = carts.stream()
+        .map(CartSubtotals::of)
+        .toList();
+
+    List<PromoCodeDiscountDto> summary = new ArrayList<>(promos.size());
+    for (PromoCode promo : promos) {
+      long totalDiscount = 0L;
+      for (CartSubtotals cart : subtotals) {
+        totalDiscount = Math.addExact(totalDiscount, discountCents(cart.eligibleCents(promo), promo));
+      }
+      summary.add(new PromoCodeDiscountDto(promo.getCode(), Cents.toAmount(totalDiscount)));
+    }
+    return summary;
+  }
+
+  private List<PromoCodeDiscountDto> discountSummaryExact(List<Cart> carts, List<PromoCode> promos) {
+    return promos.stream()
+        .map(promo -> {
+          BigDecimal totalDiscount = carts.stream()
+              .map(cart -> calculateDiscount(cart, promo, false))
+              .reduce(BigDecimal.ZERO, BigDecimal::add);
+          return new PromoCodeDiscountDto(promo.getCode(), totalDiscount);
+        })
+        .toList();
+  }
+
+  private long countItems(Cart cart) {
+    return cart.getItems().stream()
+        .mapToLong(CartItem::getQuantity)
+        .sum();
+  }
+
+  private long countDistinctProducts(Cart cart) {
+    return cart.getItems().stream()
+        .map(CartItem::getSourceProductId)
+        .filter(Objects::nonNull)
+        .distinct()
+        .count();
+  }
+
   private BigDecimal calculateCartTotal(Cart cart) {
+    try {
+      return Cents.toAmount(cartTotalCents(cart));
+    } catch (ArithmeticException ex) {
+      return exactCartTotal(cart);
+    }
+  }
+
+  private BigDecimal calculateFinalTotal(Cart cart, PromoCode promo) {
+    try {
+      long total = cartTotalCents(cart);
+      long discount = discountCents(cart, promo, true);
+      return Cents.toAmount(Math.max(Math.subtractExact(total, discount), 0L));
+    } catch (ArithmeticException ex) {
+      return exactCartTotal(cart)
+          .subtract(calculateDiscount(cart, promo, true))
+          .max(BigDecimal.ZERO);
+    }
+  }
+
+  private long cartTotalCents(Cart cart) {
+    long total = 0L;
+    for (CartItem item : cart.getItems()) {
+      total = Math.addExact(total, Cents.line(item.getBasePrice(), item.getQuantity()));
+    }
+    return total;
+  }
+
+  private long discountCents(Cart cart, PromoCode promo, boolean requireActive) {
+    if (promo == null) {
+      return 0L;
+    }
+    if (requireActive && !promo.isActive()) {
+      return 0L;
+    }
+
+    long eligibleTotal = 0L;
+    for (CartItem item : cart.getItems()) {
+      if (isPromoApplicable(promo, item)) {
+        eligibleTotal = Math.addExact(eligibleTotal, Cents.line(item.getBasePrice(), item.getQuantity()));
+      }
+    }
+    return discountCents(eligibleTotal, promo);
+  }
+
+  private static long discountCents(long eligibleTotal, PromoCode promo) {
+    if (eligibleTotal <= 0L) {
+      return 0L;
+    }
+
+    if (promo.getDiscountType() == DiscountType.PERCENT) {
+      return Cents.percentOf(eligibleTotal, promo.getDiscountValue());
+    }
+
+    return Math.min(Cents.of(promo.getDiscountValue()), eligibleTotal);
+  }
+
+  private BigDecimal exactCartTotal(Cart cart) {
     return cart.getItems().stream()
         .map(item -> item.getBasePrice()
             .multiply(BigDecimal.valueOf(item.getQuantity())))
@@ -226,6 +398,10 @@ public class CartAnalyticsService extends AnalyticsBase {
             .multiply(BigDecimal.valueOf(item.getQuantity())))
         .reduce(BigDecimal.ZERO, BigDecimal::add);
 
+    return calculateDiscount(eligibleTotal, promo);
+  }
+
+  private BigDecimal calculateDiscount(BigDecimal eligibleTotal, PromoCode promo) {
     if (eligibleTotal.compareTo(BigDecimal.ZERO) <= 0) {
       return BigDecimal.ZERO;
     }
@@ -238,17 +414,52 @@ public class CartAnalyticsService extends AnalyticsBase {
     return promo.getDiscountValue().min(eligibleTotal);
   }
 
-  private boolean isPromoApplicable(PromoCode promo, Product product) {
-    if (promo.getApplicableCategory() == null || promo.getApplicableCategory().isBlank()) {
+  private static boolean isPromoApplicable(PromoCode promo, CartItem item) {
+    if (appliesToAllCategories(promo)) {
       return true;
     }
-    return promo.getApplicableCategory().equalsIgnoreCase(product.getCategory());
+    return promo.getApplicableCategory().equalsIgnoreCase(item.getCategory());
+  }
+
+  private static boolean appliesToAllCategories(PromoCode promo) {
+    return promo.getApplicableCategory() == null || promo.getApplicableCategory().isBlank();
   }
 
   private BigDecimal normalize(BigDecimal value, BigDecimal max) {
     if (max.compareTo(BigDecimal.ZERO) <= 0) {
       return BigDecimal.ZERO;
     }
-    return value.divide(max, 4, RoundingMode.HALF_UP);
+    return value.divide(max, RATIO_SCALE, RoundingMode.HALF_UP);
+  }
+
+  private static final class CartSubtotals {
+    private final long total;
+    private final Map<String, Long> byCategory;
+
+    private CartSubtotals(long total, Map<String, Long> byCategory) {
+      this.total = total;
+      this.byCategory = byCategory;
+    }
+
+    // Keyed case-insensitively so lookups agree with isPromoApplicable's equalsIgnoreCase.
+    static CartSubtotals of(Cart cart) {
+      long total = 0L;
+      Map<String, Long> byCategory = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+      for (CartItem item : cart.getItems()) {
+        long line = Cents.line(item.getBasePrice(), item.getQuantity());
+        total = Math.addExact(total, line);
+        if (item.getCategory() != null) {
+          byCategory.merge(item.getCategory(), line, Math::addExact);
+        }
+      }
+      return new CartSubtotals(total, byCategory);
+    }
+
+    long eligibleCents(PromoCode promo) {
+      if (appliesToAllCategories(promo)) {
+        return total;
+      }
+      return byCategory.getOrDefault(promo.getApplicableCategory(), 0L);
+    }
   }
 }
@@ -0,0 +1,85 @@
+package com.example.cart.service;
+
+import com.example.cart.model.CartItem;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CartItemExportService {
+  private final DataSearchService dataSearchService;
+  private final SessionFactory sessionFactory;
+  private final ExportConnections exportConnections;
+  private final int fetchSize;
+
+  public CartItemExportService(
+      DataSearchService dataSearchService,
+      EntityManagerFactory entityManagerFactory,
+      ExportConnections exportConnections,
+      @Value("${search.stream.fetch-size:500}") int fetchSize) {
+    this.dataSearchService = dataSearchService;
+    this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    this.exportConnections = exportConnections;
+    this.fetchSize = fetchSize;
+  }
+
+  public long streamCartItems(
+      String cartId,
+      String productId,
+      String minQuantity,
+      Consumer<CartItem> sink) {
+    try (Connection connection = exportConnections.getConnection();
+        Session session = sessionFactory.withOptions().connection(connection).openSession()) {
+      connection.setReadOnly(true);
+      session.setDefaultReadOnly(true);
+      return stream(session, cartId, productId, minQuantity, sink);
+    } catch (SQLException ex) {
+      throw new UncategorizedSQLException("Cart item export", null, ex);
+    }
+  }
+
+  private long stream(
+      Session session,
+      String cartId,
+      String productId,
+      String minQuantity,
+      Consumer<CartItem> sink) {
+    CriteriaBuilder cb = session.getCriteriaBuilder();
+    CriteriaQuery<CartItem> query = cb.createQuery(CartItem.class);
+    Root<CartItem> root = query.from(CartItem.class);
+    Predicate predicate = dataSearchService.cartItemFilter(cartId, productId, minQuantity)
+        .toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    query.orderBy(cb.asc(root.get("cartItemId")));
+
+    long count = 0;
+    try (Stream<CartItem> rows = session.createQuery(query)
+        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .getResultStream()) {
+      Iterator<CartItem> iterator = rows.iterator();
+      while (iterator.hasNext()) {
+        sink.accept(iterator.next());
+        if (++count % fetchSize == 0) {
+          session.clear();
+        }
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,95 @@
+package com.example.cart.service;
+
+import com.example.cart.dto.AddToCartResultDto;
+import com.example.cart.dto.CartItemQuantityDto;
+import com.example.cart.event.CartItemChangedEvent;
+import com.example.cart.event.CartItemState;
+import com.example.cart.event.ProductState;
+import com.example.cart.model.Cart;
+import com.example.cart.model.CartItem;
+import com.example.cart.repo.CartItemRepository;
+import com.example.cart.repo.CartRepository;
+import jakarta.persistence.EntityNotFoundException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class CartItemService {
+  private final CartRepository cartRepository;
+  private final ProductCatalog productCatalog;
+  private final CartItemRepository cartItemRepository;
+  private final ApplicationEventPublisher eventPublisher;
+
+  @Transactional
+  public AddToCartResultDto addItems(Long cartId, List<CartItemQuantityDto> items) {
+    Map<Long, Integer> quantities = new LinkedHashMap<>();
+    for (CartItemQuantityDto item : items) {
+      if (item.getProductId() == null) {
+        throw new IllegalArgumentException("Не указан товар");
+      }
+      if (item.getQuantity() <= 0) {
+        throw new IllegalArgumentException("Количество должно быть больше нуля");
+      }
+      quantities.merge(item.getProductId(), item.getQuantity(), Math::addExact);
+    }
+    if (quantities.isEmpty()) {
+      throw new IllegalArgumentException("Список позиций пуст");
+    }
+
+    Cart cart = cartRepository.findByIdForUpdate(cartId)
+        .orElseThrow(() -> new EntityNotFoundException("Корзина не найдена"));
+    Map<Long, ProductState> products = productCatalog.findAllById(quantities.keySet());
+    List<Long> missing = quantities.keySet().stream().filter(id -> !products.containsKey(id)).toList();
+    if (!missing.isEmpty()) {
+      throw new IllegalArgumentException("Товары не найдены: " + missing);
+    }
+
+    Map<Long, CartItem> lines = new HashMap<>();
+    for (CartItem line : cartItemRepository.findByCart_CartIdAndSourceProductIdInOrderByCartItemIdAsc(
+        cartId, quantities.keySet())) {
+      lines.putIfAbsent(line.getSourceProductId(), line);
+    }
+
+    List<CartItemChangedEvent> events = new ArrayList<>();
+    List<CartItem> added = new ArrayList<>();
+    LocalDateTime now = LocalDateTime.now();
+    for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+      CartItem line = lines.get(entry.getKey());
+      if (line != null) {
+        CartItemState before = CartItemState.of(line);
+        int quantity = Math.addExact(before.getQuantity(), entry.getValue());
+        cartItemRepository.incrementQuantity(line.getCartItemId(), entry.getValue());
+        events.add(new CartItemChangedEvent(before, new CartItemState(
+            before.getCartItemId(),
+            before.getCartId(),
+            before.getSourceProductId(),
+            before.getName(),
+            before.getCategory(),
+            quantity)));
+      } else {
+        CartItem item = new CartItem();
+        item.updateCart(cart);
+        item.updateProductSnapshot(products.get(entry.getKey()));
+        item.updateQuantity(entry.getValue());
+        item.updateAddedDate(now);
+        added.add(item);
+      }
+    }
+    cartItemRepository.saveAll(added);
+    for (CartItem item : added) {
+      events.add(new CartItemChangedEvent(null, CartItemState.of(item)));
+    }
+    events.forEach(eventPublisher::publishEvent);
+
+    return new AddToCartResultDto(cartId, added.size(), quantities.size() - added.size());
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.cart.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+final class Cents {
+  private static final int SCALE = 2;
+
+  private Cents() {
+  }
+
+  static long of(BigDecimal amount) {
+    return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+  }
+
+  static BigDecimal toAmount(long cents) {
+    return BigDecimal.valueOf(cents, SCALE);
+  }
+
+  static long line(BigDecimal price, int quantity) {
+    return Math.multiplyExact(of(price), quantity);
+  }
+
+  static long percentOf(long cents, BigDecimal percent) {
+    long numerator = Math.multiplyExact(cents, percent.unscaledValue().longValueExact());
+    if (percent.scale() < 0) {
+      return divideHalfUp(Math.multiplyExact(numerator, pow10(-percent.scale())), 100L);
+    }
+    return divideHalfUp(numerator, Math.multiplyExact(100L, pow10(percent.scale())));
+  }
+
+  static long ratio(long value, long max, int scale) {
+    if (max <= 0) {
+      return 0L;
+    }
+    return divideHalfUp(Math.multiplyExact(value, pow10(scale)), max);
+  }
+
+  static long divideHalfUp(long dividend, long divisor) {
+    if (dividend == Long.MIN_VALUE && divisor == -1L) {
+      throw new ArithmeticException("long overflow");
+    }
+    long quotient = dividend / divisor;
+    long remainder = dividend % divisor;
+    if (remainder != 0
+        && Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+      quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+    }
+    return quotient;
+  }
+
+  private static long pow10(int exponent) {
+    long result = 1;
+    for (int i = 0; i < exponent; i++) {
+      result = Math.multiplyExact(result, 10L);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,110 @@
+package com.example.cart.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class CsvImportReader implements ImportReader {
+  private final Reader reader;
+  private List<String> header;
+  private long line = 1;
+  private int pending = -2;
+
+  CsvImportReader(Reader reader) {
+    this.reader = reader;
+  }
+
+  @Override
+  public ImportRecord next() throws IOException {
+    if (header == null) {
+      header = readRow();
+      if (header == null) {
+        return null;
+      }
+      header.replaceAll(name -> name.trim().toLowerCase());
+    }
+    List<String> values;
+    long start;
+    do {
+      start = line;
+      values = readRow();
+      if (values == null) {
+        return null;
+      }
+    } while (values.size() == 1 && values.get(0).isEmpty());
+
+    if (values.size() != header.size()) {
+      throw new ImportRowException(start,
+          "Ожидалось полей: " + header.size() + ", получено: " + values.size());
+    }
+    Map<String, String> fields = new HashMap<>();
+    for (int i = 0; i < header.size(); i++) {
+      fields.put(header.get(i), values.get(i));
+    }
+    return new ImportRecord(start, fields);
+  }
+
+  private List<String> readRow() throws IOException {
+    int c = read();
+    if (c == -1) {
+      return null;
+    }
+    List<String> values = new ArrayList<>();
+    StringBuilder value = new StringBuilder();
+    boolean quoted = false;
+    while (true) {
+      if (quoted) {
+        if (c == -1) {
+          throw new ImportRowException(line, "Незакрытые кавычки");
+        }
+        if (c == '"') {
+          int next = read();
+          if (next == '"') {
+            value.append('"');
+          } else {
+            quoted = false;
+            c = next;
+            continue;
+          }
+        } else {
+          if (c == '\n') {
+            line++;
+          }
+          value.append((char) c);
+        }
+      } else if (c == '"' && value.isEmpty()) {
+        quoted = true;
+      } else if (c == ',') {
+        values.add(value.toString());
+        value.setLength(0);
+      } else if (c == '\r' || c == '\n' || c == -1) {
+        if (c == '\r') {
+          int next = read();
+          if (next != '\n') {
+            pending = next;
+          }
+        }
+        if (c != -1) {
+          line++;
+        }
+        values.add(value.toString());
+        return values;
+      } else {
+        value.append((char) c);
+      }
+      c = read();
+    }
+  }
+
+  private int read() throws IOException {
+    if (pending != -2) {
+      int c = pending;
+      pending = -2;
+      return c;
+    }
+    return reader.read();
+  }
+}
@@ -1,5 +1,7 @@
 package com.example.cart.service;
 
+import com.example.cart.dto.KeysetPage;
+import com.example.cart.dto.PageCursor;
 import com.example.cart.model.Cart;
 import com.example.cart.model.CartItem;
 import com.example.cart.model.Customer;
@@ -12,11 +14,12 @@ import com.example.cart.repo.CartRepository;
 import com.example.cart.repo.CustomerRepository;
 import com.example.cart.repo.ProductRepository;
 import com.example.cart.repo.PromoCodeRepository;
+import com.example.cart.repo.SearchSpecifications;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Comparator;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -27,89 +30,134 @@ public class DataSearchService {
   private final CartRepository cartRepository;
   private final CartItemRepository cartItemRepository;
   private final PromoCodeRepository promoCodeRepository;
+  private final TextSearchIndex textSearchIndex;
+  private final ProductPriceIndex productPriceIndex;
 
-  public List<Customer> searchCustomers(
+  public KeysetPage<Customer> searchCustomers(
       String email,
       String loyaltyLevel,
       String registeredFrom,
-      String registeredTo) {
+      String registeredTo,
+      PageCursor cursor) {
     LocalDate from = parseDate(registeredFrom);
     LocalDate to = parseDate(registeredTo);
     LoyaltyLevel level = parseLoyalty(loyaltyLevel);
 
-    return customerRepository.findAll().stream()
-        .filter(customer -> isBlank(email) || containsIgnoreCase(customer.getEmail(), email))
-        .filter(customer -> level == null || customer.getLoyaltyLevel() == level)
-        .filter(customer -> isWithin(customer.getRegistrationDate(), from, to))
-        .sorted(Comparator.comparing(Customer::getCustomerId))
-        .toList();
-  }
-
-  public List<Product> searchProducts(
+    return KeysetPager.fetch(
+        customerRepository,
+        Specification.allOf(
+            SearchSpecifications.keyIn("customerId", textSearchIndex.customersWithEmailContaining(email)),
+            SearchSpecifications.containsIgnoreCase("email", email),
+            SearchSpecifications.equalTo("loyaltyLevel", level),
+            SearchSpecifications.atLeast("registrationDate", from),
+            SearchSpecifications.atMost("registrationDate", to)),
+        "customerId",
+        Customer::getCustomerId,
+        Long::valueOf,
+        cursor);
+  }
+
+  public KeysetPage<Product> searchProducts(
       String name,
       String category,
       String inStock,
       String minPrice,
-      String maxPrice) {
+      String maxPrice,
+      PageCursor cursor) {
     Boolean stock = parseBoolean(inStock);
     BigDecimal min = parseDecimal(minPrice);
     BigDecimal max = parseDecimal(maxPrice);
 
-    return productRepository.findAllProducts().stream()
-        .filter(product -> isBlank(name) || containsIgnoreCase(product.getName(), name))
-        .filter(product -> isBlank(category) || containsIgnoreCase(product.getCategory(), category))
-        .filter(product -> stock == null || product.isInStock() == stock)
-        .filter(product -> isBetween(product.getBasePrice(), min, max))
-        .sorted(Comparator.comparing(Product::getProductId))
-        .toList();
-  }
-
-  public List<Cart> searchCarts(
+    return KeysetPager.fetch(
+        productRepository,
+        Specification.allOf(
+            SearchSpecifications.keyIn("productId", productPriceIndex.productsPricedBetween(min, max)),
+            SearchSpecifications.keyIn("productId", textSearchIndex.productsWithNameContaining(name)),
+            SearchSpecifications.containsIgnoreCase("name", name),
+            SearchSpecifications.keyIn("category", categoriesContaining(category)),
+            SearchSpecifications.containsIgnoreCase("category", category),
+            SearchSpecifications.equalTo("inStock", stock),
+            SearchSpecifications.atLeast("basePrice", min),
+            SearchSpecifications.atMost("basePrice", max)),
+        "productId",
+        Product::getProductId,
+        Long::valueOf,
+        cursor);
+  }
+
+  public KeysetPage<Cart> searchCarts(
       String customerId,
       String active,
-      String promoCode) {
+      String promoCode,
+      PageCursor cursor) {
     Long customer = parseLong(customerId);
     Boolean isActive = parseBoolean(active);
 
-    return cartRepository.findAll().stream()
-        .filter(cart -> customer == null
-            || (cart.getCustomer() != null && customer.equals(cart.getCustomer().getCustomerId())))
-        .filter(cart -> isActive == null || cart.isActive() == isActive)
-        .filter(cart -> isBlank(promoCode) || containsIgnoreCase(cart.getPromoCode(), promoCode))
-        .sorted(Comparator.comparing(Cart::getCartId))
-        .toList();
+    return KeysetPager.fetch(
+        cartRepository,
+        Specification.allOf(
+            SearchSpecifications.equalTo("customer.customerId", customer),
+            SearchSpecifications.equalTo("active", isActive),
+            SearchSpecifications.containsIgnoreCase("promoCode", promoCode)),
+        "cartId",
+        Cart::getCartId,
+        Long::valueOf,
+        cursor);
   }
 
-  public List<CartItem> searchCartItems(
+  public KeysetPage<CartItem> searchCartItems(
       String cartId,
       String productId,
-      String minQuantity) {
+      String minQuantity,
+      PageCursor cursor) {
+    return KeysetPager.fetch(
+        cartItemRepository,
+        cartItemFilter(cartId, productId, minQuantity),
+        "cartItemId",
+        CartItem::getCartItemId,
+        Long::valueOf,
+        cursor);
+  }
+
+  Specification<CartItem> cartItemFilter(String cartId, String productId, String minQuantity) {
     Long cart = parseLong(cartId);
     Long product = parseLong(productId);
     Integer min = parseInt(minQuantity);
 
-    return cartItemRepository.findAll().stream()
-        .filter(item -> cart == null
-            || (item.getCart() != null && cart.equals(item.getCart().getCartId())))
-        .filter(item -> product == null
-            || (item.getSourceProductId() != null && product.equals(item.getSourceProductId())))
-        .filter(item -> min == null || item.getQuantity() >= min)
-        .sorted(Comparator.comparing(CartItem::getCartItemId))
-        .toList();
+    return Specification.allOf(
+        SearchSpecifications.equalTo("cart.cartId", cart),
+        SearchSpecifications.equalTo("sourceProductId", product),
+        SearchSpecifications.atLeast("quantity", min));
   }
 
-  public List<PromoCode> searchPromos(
+  public KeysetPage<PromoCode> searchPromos(
       String discountType,
       String active,
-      String category) {
+      String category,
+      PageCursor cursor) {
     DiscountType type = parseDiscountType(discountType);
     Boolean isActive = parseBoolean(active);
 
-    return promoCodeRepository.findAll().stream()
-        .filter(promo -> type == null || promo.getDiscountType() == type)
-        .filter(promo -> isActive == null || promo.isActive() == isActive)
-        .filter(promo -> isBlank(category) || containsIgnoreCase(promo.getApplicableCategory(), category))
-        .sorted(Comparator.comparing(PromoCode::getCode))
+    return KeysetPager.fetch(
+        promoCodeRepository,
+        Specification.allOf(
+            SearchSpecifications.equalTo("discountType", type),
+            SearchSpecifications.equalTo("active", isActive),
+            SearchSpecifications.containsIgnoreCase("applicableCategory", category)),
+        "code",
+        PromoCode::getCode,
+        String::valueOf,
+        cursor);
+  }
+
+  // Turns the substring filter into an IN list so the lookup can use idx_products_category.
+  private List<String> categoriesContaining(String needle) {
+    if (isBlank(needle)) {
+      return null;
+    }
+    String lower = needle.trim().toLowerCase();
+    return productRepository.findDistinctCategories().stream()
+        .filter(category -> category.toLowerCase().contains(lower))
         .toList();
   }
 
@@ -117,13 +165,6 @@ public class DataSearchService {
     return value == null || value.isBlank();
   }
 
-  private boolean containsIgnoreCase(String value, String needle) {
-    if (value == null || needle == null) {
-      return false;
-    }
-    return value.toLowerCase().contains(needle.toLowerCase().trim());
-  }
-
   private LocalDate parseDate(String value) {
     if (isBlank(value)) {
       return null;
@@ -196,28 +237,4 @@ public class DataSearchService {
       return null;
     }
   }
-
-  private boolean isWithin(LocalDate value, LocalDate from, LocalDate to) {
-    if (from == null && to == null) {
-      return true;
-    }
-    if (value == null) {
-      return false;
-    }
-    boolean afterFrom = from == null || !value.isBefore(from);
-    boolean beforeTo = to == null || !value.isAfter(to);
-    return afterFrom && beforeTo;
-  }
-
-  private boolean isBetween(BigDecimal value, BigDecimal min, BigDecimal max) {
-    if (min == null && max == null) {
-      return true;
-    }
-    if (value == null) {
-      return false;
-    }
-    boolean above = min == null || value.compareTo(min) >= 0;
-    boolean below = max == null || value.compareTo(max) <= 0;
-    return above && below;
-  }
 }
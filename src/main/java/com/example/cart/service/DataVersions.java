@@ -0,0 +1,38 @@
+package com.example.cart.service;
+
+import com.example.cart.event.DataChangedEvent;
+import com.example.cart.event.DataTable;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class DataVersions {
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+  private final Map<DataTable, AtomicLong> versions = new EnumMap<>(DataTable.class);
+
+  public DataVersions() {
+    for (DataTable table : DataTable.values()) {
+      versions.put(table, new AtomicLong());
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDataChanged(DataChangedEvent event) {
+    versions.get(event.getTable()).incrementAndGet();
+  }
+
+  public long version(DataTable table) {
+    return versions.get(table).get();
+  }
+
+  public String etag() {
+    StringBuilder etag = new StringBuilder("W/\"").append(epoch);
+    for (DataTable table : DataTable.values()) {
+      etag.append('-').append(version(table));
+    }
+    return etag.append('"').toString();
+  }
+}
@@ -0,0 +1,22 @@
+package com.example.cart.service;
+
+import com.example.cart.event.DataImportedEvent;
+import com.example.cart.event.DataTable;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class EntityCacheInvalidator {
+  private final EntityManagerFactory entityManagerFactory;
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDataImported(DataImportedEvent event) {
+    if (event.getTable() == DataTable.PRODUCTS || event.getTable() == DataTable.PROMO_CODES) {
+      entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.example.cart.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+// Separate pool for the CSV export, so driver settings such as MySQL's useCursorFetch
+// (export.datasource.hikari.data-source-properties.*) apply to export reads only.
+// Not a DataSource bean, so the main pool is still auto-configured.
+@Component
+public class ExportConnections implements DisposableBean {
+  private final HikariDataSource dataSource;
+
+  public ExportConnections(DataSourceProperties properties, Environment environment) {
+    this.dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    Binder.get(environment).bind("export.datasource.hikari", Bindable.ofInstance(dataSource));
+  }
+
+  public Connection getConnection() throws SQLException {
+    return dataSource.getConnection();
+  }
+
+  HikariDataSource getDataSource() {
+    return dataSource;
+  }
+
+  @Override
+  public void destroy() {
+    dataSource.close();
+  }
+}
@@ -0,0 +1,7 @@
+package com.example.cart.service;
+
+import java.io.IOException;
+
+interface ImportReader {
+  ImportRecord next() throws IOException;
+}
@@ -0,0 +1,17 @@
+package com.example.cart.service;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+class ImportRecord {
+  private final long line;
+  private final Map<String, String> fields;
+
+  String get(String name) {
+    String value = fields.get(name);
+    return value == null || value.isBlank() ? null : value.trim();
+  }
+}
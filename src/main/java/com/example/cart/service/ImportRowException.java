@@ -0,0 +1,13 @@
+package com.example.cart.service;
+
+import lombok.Getter;
+
+@Getter
+class ImportRowException extends RuntimeException {
+  private final long line;
+
+  ImportRowException(long line, String message) {
+    super(message);
+    this.line = line;
+  }
+}
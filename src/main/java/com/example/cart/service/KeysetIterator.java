@@ -0,0 +1,46 @@
+package com.example.cart.service;
+
+import com.example.cart.dto.KeysetPage;
+import com.example.cart.dto.PageCursor;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+final class KeysetIterator<T> implements Iterator<T> {
+  private final Function<PageCursor, KeysetPage<T>> loader;
+  private final Runnable beforeNextChunk;
+  private Iterator<T> current;
+  private String nextCursor;
+  private boolean started;
+
+  KeysetIterator(Function<PageCursor, KeysetPage<T>> loader, Runnable beforeNextChunk) {
+    this.loader = loader;
+    this.beforeNextChunk = beforeNextChunk;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (current == null || !current.hasNext()) {
+      if (started && nextCursor == null) {
+        return false;
+      }
+      if (started) {
+        beforeNextChunk.run();
+      }
+      KeysetPage<T> page = loader.apply(
+          new PageCursor(nextCursor, null, String.valueOf(KeysetPager.MAX_SIZE)));
+      started = true;
+      current = page.getItems().iterator();
+      nextCursor = page.getNextCursor();
+    }
+    return true;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return current.next();
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.cart.service;
+
+import com.example.cart.dto.KeysetPage;
+import com.example.cart.dto.PageCursor;
+import com.example.cart.repo.SearchSpecifications;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+final class KeysetPager {
+  static final int DEFAULT_SIZE = 50;
+  static final int MAX_SIZE = 500;
+
+  private KeysetPager() {
+  }
+
+  static <T, K extends Comparable<? super K>> KeysetPage<T> fetch(
+      JpaSpecificationExecutor<T> repository,
+      Specification<T> filter,
+      String keyAttribute,
+      Function<T, K> keyOf,
+      Function<String, K> parseKey,
+      PageCursor cursor) {
+    Integer requestedSize = parse(Integer::valueOf, cursor.getSize());
+    int size = requestedSize == null ? DEFAULT_SIZE : Math.max(1, Math.min(requestedSize, MAX_SIZE));
+    K before = parse(parseKey, cursor.getBefore());
+    K after = before == null ? parse(parseKey, cursor.getAfter()) : null;
+    boolean backward = before != null;
+
+    Specification<T> spec = Specification.allOf(
+        filter,
+        backward
+            ? SearchSpecifications.lessThan(keyAttribute, before)
+            : SearchSpecifications.greaterThan(keyAttribute, after));
+    Sort sort = backward ? Sort.by(keyAttribute).descending() : Sort.by(keyAttribute);
+    List<T> rows = repository.findBy(spec, query -> query.sortBy(sort).limit(size + 1).all());
+
+    boolean more = rows.size() > size;
+    List<T> items = new ArrayList<>(more ? rows.subList(0, size) : rows);
+    if (backward) {
+      Collections.reverse(items);
+    }
+    if (items.isEmpty()) {
+      return new KeysetPage<>(List.of(), null, null, size);
+    }
+    boolean hasPrevious = backward ? more : after != null;
+    boolean hasNext = backward || more;
+    return new KeysetPage<>(
+        items,
+        hasPrevious ? String.valueOf(keyOf.apply(items.get(0))) : null,
+        hasNext ? String.valueOf(keyOf.apply(items.get(items.size() - 1))) : null,
+        size);
+  }
+
+  private static <K> K parse(Function<String, K> parseKey, String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    try {
+      return parseKey.apply(value.trim());
+    } catch (Exception ex) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package com.example.cart.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+class NdjsonImportReader implements ImportReader {
+  private final BufferedReader reader;
+  private final ObjectMapper objectMapper;
+  private long line;
+
+  NdjsonImportReader(BufferedReader reader, ObjectMapper objectMapper) {
+    this.reader = reader;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public ImportRecord next() throws IOException {
+    String text;
+    do {
+      text = reader.readLine();
+      line++;
+      if (text == null) {
+        return null;
+      }
+    } while (text.isBlank());
+
+    JsonNode node;
+    try {
+      node = objectMapper.readTree(text);
+    } catch (JsonProcessingException ex) {
+      throw new ImportRowException(line, "Некорректный JSON: " + ex.getOriginalMessage());
+    }
+    if (!node.isObject()) {
+      throw new ImportRowException(line, "Ожидался JSON-объект");
+    }
+    Map<String, String> fields = new HashMap<>();
+    Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+    while (entries.hasNext()) {
+      Map.Entry<String, JsonNode> entry = entries.next();
+      JsonNode value = entry.getValue();
+      fields.put(entry.getKey().toLowerCase(), value.isNull() ? null : value.asText());
+    }
+    return new ImportRecord(line, fields);
+  }
+}
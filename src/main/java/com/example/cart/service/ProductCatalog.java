@@ -0,0 +1,71 @@
+package com.example.cart.service;
+
+import com.example.cart.event.DataChangedEvent;
+import com.example.cart.event.DataTable;
+import com.example.cart.event.ProductState;
+import com.example.cart.model.Product;
+import com.example.cart.repo.ProductRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Service
+@RequiredArgsConstructor
+public class ProductCatalog {
+  static final String CACHE = "productCatalog";
+
+  private final ProductRepository productRepository;
+  private final CacheManager cacheManager;
+  private final DataVersions dataVersions;
+
+  public Optional<ProductState> findById(Long id) {
+    return Optional.ofNullable(findAllById(List.of(id)).get(id));
+  }
+
+  public Map<Long, ProductState> findAllById(Collection<Long> ids) {
+    Cache cache = cacheManager.getCache(CACHE);
+    // Read before loading: a load that overlaps a product change is stored under the old version,
+    // which no later lookup uses, so it cannot put the previous row back.
+    long version = dataVersions.version(DataTable.PRODUCTS);
+    Map<Long, ProductState> found = new HashMap<>();
+    List<Long> missing = new ArrayList<>();
+    for (Long id : ids) {
+      ProductState product = cache == null ? null : cache.get(new Key(version, id), ProductState.class);
+      if (product != null) {
+        found.put(id, product);
+      } else {
+        missing.add(id);
+      }
+    }
+    if (missing.isEmpty()) {
+      return found;
+    }
+    for (Product product : productRepository.findAllById(missing)) {
+      ProductState state = ProductState.of(product);
+      if (cache != null) {
+        cache.put(new Key(version, state.getProductId()), state);
+      }
+      found.put(state.getProductId(), state);
+    }
+    return found;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDataChanged(DataChangedEvent event) {
+    Cache cache = cacheManager.getCache(CACHE);
+    if (cache != null && event.getTable() == DataTable.PRODUCTS) {
+      cache.clear();
+    }
+  }
+
+  private record Key(long version, Long productId) {
+  }
+}
@@ -0,0 +1,132 @@
+package com.example.cart.service;
+
+import com.example.cart.dto.PriceBucketDto;
+import com.example.cart.event.DataImportedEvent;
+import com.example.cart.event.DataTable;
+import com.example.cart.event.ProductChangedEvent;
+import com.example.cart.model.Product;
+import com.example.cart.repo.ProductRepository;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class ProductPriceIndex {
+  static final int MAX_CANDIDATES = 1000;
+  static final int HISTOGRAM_BUCKETS = 10;
+
+  private final ProductRepository productRepository;
+
+  private final NavigableMap<BigDecimal, Set<Long>> byPrice = new TreeMap<>();
+  private final Map<Long, BigDecimal> prices = new HashMap<>();
+
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void rebuild() {
+    byPrice.clear();
+    prices.clear();
+    for (Product product : productRepository.findAll()) {
+      put(product.getProductId(), product.getBasePrice());
+    }
+  }
+
+  public synchronized List<Long> productsPricedBetween(BigDecimal min, BigDecimal max) {
+    if (min == null && max == null) {
+      return null;
+    }
+    if (min != null && max != null && min.compareTo(max) > 0) {
+      return List.of();
+    }
+    NavigableMap<BigDecimal, Set<Long>> slice = min == null
+        ? byPrice.headMap(max, true)
+        : max == null ? byPrice.tailMap(min, true) : byPrice.subMap(min, true, max, true);
+
+    List<Long> ids = new ArrayList<>();
+    for (Set<Long> samePrice : slice.values()) {
+      ids.addAll(samePrice);
+      if (ids.size() > MAX_CANDIDATES) {
+        return null;
+      }
+    }
+    ids.sort(Comparator.naturalOrder());
+    return ids;
+  }
+
+  public synchronized List<PriceBucketDto> histogram() {
+    if (byPrice.isEmpty()) {
+      return List.of();
+    }
+    BigDecimal low = byPrice.firstKey();
+    BigDecimal high = byPrice.lastKey();
+    BigDecimal width = high.subtract(low)
+        .divide(BigDecimal.valueOf(HISTOGRAM_BUCKETS), 2, RoundingMode.CEILING);
+    if (width.signum() == 0) {
+      return List.of(new PriceBucketDto(low, high, prices.size()));
+    }
+
+    long[] counts = new long[HISTOGRAM_BUCKETS];
+    for (Map.Entry<BigDecimal, Set<Long>> entry : byPrice.entrySet()) {
+      int bucket = entry.getKey().subtract(low).divide(width, 0, RoundingMode.FLOOR).intValue();
+      counts[Math.min(bucket, HISTOGRAM_BUCKETS - 1)] += entry.getValue().size();
+    }
+
+    List<PriceBucketDto> buckets = new ArrayList<>();
+    for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+      BigDecimal from = low.add(width.multiply(BigDecimal.valueOf(i)));
+      BigDecimal to = i == HISTOGRAM_BUCKETS - 1 ? high : from.add(width);
+      buckets.add(new PriceBucketDto(from, to, counts[i]));
+    }
+    return buckets;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDataImported(DataImportedEvent event) {
+    if (event.getTable() == DataTable.PRODUCTS) {
+      rebuild();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onProductChanged(ProductChangedEvent event) {
+    if (event.getBefore() != null) {
+      remove(event.getBefore().getProductId());
+    }
+    if (event.getAfter() != null) {
+      put(event.getAfter().getProductId(), event.getAfter().getBasePrice());
+    }
+  }
+
+  private void put(Long id, BigDecimal price) {
+    remove(id);
+    if (id == null || price == null) {
+      return;
+    }
+    prices.put(id, price);
+    byPrice.computeIfAbsent(price, key -> new HashSet<>()).add(id);
+  }
+
+  private void remove(Long id) {
+    BigDecimal old = prices.remove(id);
+    if (old == null) {
+      return;
+    }
+    Set<Long> ids = byPrice.get(old);
+    ids.remove(id);
+    if (ids.isEmpty()) {
+      byPrice.remove(old);
+    }
+  }
+}
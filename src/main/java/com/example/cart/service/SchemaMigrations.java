@@ -0,0 +1,231 @@
+package com.example.cart.service;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Component
+public class SchemaMigrations implements InitializingBean {
+  static final String SNAPSHOT_COLUMNS = "cart-items-snapshot-columns";
+  static final String COPY_SNAPSHOTS = "cart-items-copy-snapshots";
+  static final String DROP_PRODUCT_FOREIGN_KEY = "cart-items-drop-product-fk";
+  static final String DELETE_SNAPSHOT_PRODUCTS = "products-delete-snapshots";
+  static final String RENAME_ID = "cart-items-rename-id";
+  static final String GENERATED_ID = "cart-items-generated-id";
+  static final String DROP_SOURCE_PRODUCT_INDEX = "cart-items-drop-source-product-index";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final List<Step> steps = List.of(
+      new Step(SNAPSHOT_COLUMNS, this::addSnapshotColumns),
+      new Step(COPY_SNAPSHOTS, this::copySnapshots),
+      new Step(DROP_PRODUCT_FOREIGN_KEY, this::dropProductForeignKeys),
+      new Step(DELETE_SNAPSHOT_PRODUCTS, this::deleteSnapshotProducts),
+      new Step(RENAME_ID, this::renameId),
+      new Step(GENERATED_ID, this::generateId),
+      new Step(DROP_SOURCE_PRODUCT_INDEX, this::dropSourceProductIndex));
+
+  public SchemaMigrations(DataSource dataSource) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    migrate();
+  }
+
+  // Runs before the entity manager factory, so Hibernate's schema update and the web server only see
+  // the migrated layout. Steps check the schema before acting and are recorded one by one, so an
+  // interrupted run resumes at the first unrecorded step.
+  public void migrate() {
+    jdbcTemplate.execute("create table if not exists schema_migrations ("
+        + "id varchar(100) primary key, applied_at timestamp not null)");
+    boolean existingSchema = tableExists("cart_items");
+    for (Step step : steps) {
+      if (applied(step.id())) {
+        continue;
+      }
+      transactionTemplate.executeWithoutResult(status -> {
+        if (existingSchema) {
+          step.action().run();
+        }
+        jdbcTemplate.update(
+            "insert into schema_migrations (id, applied_at) values (?, ?)", step.id(), LocalDateTime.now());
+      });
+      if (existingSchema) {
+        log.info("Applied schema migration {}", step.id());
+      }
+    }
+  }
+
+  private boolean applied(String id) {
+    Integer count = jdbcTemplate.queryForObject(
+        "select count(*) from schema_migrations where id = ?", Integer.class, id);
+    return count != null && count > 0;
+  }
+
+  private void addSnapshotColumns() {
+    addColumn("name", "varchar(255)");
+    addColumn("category", "varchar(255)");
+    addColumn("base_price", "decimal(38,2)");
+    addColumn("in_stock", "boolean default false not null");
+  }
+
+  private void addColumn(String column, String definition) {
+    if (!columnExists("cart_items", column)) {
+      jdbcTemplate.execute("alter table cart_items add column " + column + " " + definition);
+    }
+  }
+
+  private void copySnapshots() {
+    int copied = jdbcTemplate.update("update cart_items set "
+        + "name = (select p.name from products p where p.product_id = cart_items.product_id), "
+        + "category = (select p.category from products p where p.product_id = cart_items.product_id), "
+        + "base_price = (select p.base_price from products p where p.product_id = cart_items.product_id), "
+        + "in_stock = (select p.in_stock from products p where p.product_id = cart_items.product_id) "
+        + "where name is null "
+        + "and exists (select 1 from products p where p.product_id = cart_items.product_id)");
+    log.info("Copied {} cart item snapshots into cart_items", copied);
+  }
+
+  private void dropProductForeignKeys() {
+    boolean mysql = isMySql();
+    for (String key : jdbcTemplate.execute(this::legacyForeignKeys)) {
+      jdbcTemplate.execute(mysql
+          ? "alter table cart_items drop foreign key " + key
+          : "alter table cart_items drop constraint " + key);
+    }
+  }
+
+  private void deleteSnapshotProducts() {
+    int removed = jdbcTemplate.update(
+        "delete from products where product_id in (select product_id from cart_items)");
+    log.info("Removed {} cart item snapshot rows from products", removed);
+  }
+
+  private void renameId() {
+    if (columnExists("cart_items", "product_id") && !columnExists("cart_items", "cart_item_id")) {
+      jdbcTemplate.execute(isMySql()
+          ? "alter table cart_items rename column product_id to cart_item_id"
+          : "alter table cart_items alter column product_id rename to cart_item_id");
+    }
+  }
+
+  private void generateId() {
+    if (jdbcTemplate.execute(this::cartItemIdIsGenerated)) {
+      return;
+    }
+    if (isMySql()) {
+      jdbcTemplate.execute("alter table cart_items modify cart_item_id bigint not null auto_increment");
+    } else {
+      long next = jdbcTemplate.queryForObject(
+          "select coalesce(max(cart_item_id), 0) + 1 from cart_items", Long.class);
+      jdbcTemplate.execute("alter table cart_items alter column cart_item_id "
+          + "bigint generated by default as identity (start with " + next + ")");
+    }
+  }
+
+  private void dropSourceProductIndex() {
+    if (jdbcTemplate.execute(this::sourceProductIndexExists)) {
+      jdbcTemplate.execute(isMySql()
+          ? "drop index idx_cart_items_source_product on cart_items"
+          : "drop index idx_cart_items_source_product");
+    }
+  }
+
+  private boolean isMySql() {
+    return jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+        connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("MySQL"));
+  }
+
+  private boolean tableExists(String table) {
+    return jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+      DatabaseMetaData metaData = connection.getMetaData();
+      try (ResultSet rs = metaData.getTables(
+          connection.getCatalog(), connection.getSchema(), identifier(metaData, table), null)) {
+        return rs.next();
+      }
+    });
+  }
+
+  private boolean columnExists(String table, String column) {
+    return jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+      DatabaseMetaData metaData = connection.getMetaData();
+      try (ResultSet rs = metaData.getColumns(
+          connection.getCatalog(),
+          connection.getSchema(),
+          identifier(metaData, table),
+          identifier(metaData, column))) {
+        return rs.next();
+      }
+    });
+  }
+
+  private List<String> legacyForeignKeys(Connection connection) throws SQLException {
+    DatabaseMetaData metaData = connection.getMetaData();
+    List<String> keys = new ArrayList<>();
+    try (ResultSet rs = metaData.getImportedKeys(
+        connection.getCatalog(), connection.getSchema(), identifier(metaData, "cart_items"))) {
+      while (rs.next()) {
+        if (rs.getString("PKTABLE_NAME").equalsIgnoreCase("products")
+            && rs.getString("FKCOLUMN_NAME").equalsIgnoreCase("product_id")) {
+          keys.add(rs.getString("FK_NAME"));
+        }
+      }
+    }
+    return keys;
+  }
+
+  private boolean cartItemIdIsGenerated(Connection connection) throws SQLException {
+    DatabaseMetaData metaData = connection.getMetaData();
+    try (ResultSet rs = metaData.getColumns(
+        connection.getCatalog(),
+        connection.getSchema(),
+        identifier(metaData, "cart_items"),
+        identifier(metaData, "cart_item_id"))) {
+      return rs.next() && "YES".equalsIgnoreCase(rs.getString("IS_AUTOINCREMENT"));
+    }
+  }
+
+  private boolean sourceProductIndexExists(Connection connection) throws SQLException {
+    DatabaseMetaData metaData = connection.getMetaData();
+    try (ResultSet rs = metaData.getIndexInfo(
+        connection.getCatalog(), connection.getSchema(), identifier(metaData, "cart_items"), false, false)) {
+      while (rs.next()) {
+        if ("idx_cart_items_source_product".equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+    return metaData.storesUpperCaseIdentifiers() ? name.toUpperCase() : name;
+  }
+
+  private record Step(String id, Runnable action) {
+  }
+
+  @Component
+  static class EntityManagerFactoryDependsOnSchemaMigrations extends EntityManagerFactoryDependsOnPostProcessor {
+    EntityManagerFactoryDependsOnSchemaMigrations() {
+      super(SchemaMigrations.class);
+    }
+  }
+}
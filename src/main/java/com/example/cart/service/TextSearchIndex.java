@@ -0,0 +1,89 @@
+package com.example.cart.service;
+
+import com.example.cart.event.CustomerChangedEvent;
+import com.example.cart.event.DataImportedEvent;
+import com.example.cart.event.DataTable;
+import com.example.cart.event.ProductChangedEvent;
+import com.example.cart.model.Customer;
+import com.example.cart.model.Product;
+import com.example.cart.repo.CustomerRepository;
+import com.example.cart.repo.ProductRepository;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class TextSearchIndex {
+  static final int MAX_CANDIDATES = 1000;
+
+  private final CustomerRepository customerRepository;
+  private final ProductRepository productRepository;
+
+  private TrigramIndex customerEmails = new TrigramIndex();
+  private TrigramIndex productNames = new TrigramIndex();
+
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void rebuild() {
+    TrigramIndex emails = new TrigramIndex();
+    for (Customer customer : customerRepository.findAll()) {
+      emails.put(customer.getCustomerId(), customer.getEmail());
+    }
+    TrigramIndex names = new TrigramIndex();
+    for (Product product : productRepository.findAll()) {
+      names.put(product.getProductId(), product.getName());
+    }
+    customerEmails = emails;
+    productNames = names;
+  }
+
+  public synchronized List<Long> customersWithEmailContaining(String needle) {
+    return candidates(customerEmails, needle);
+  }
+
+  public synchronized List<Long> productsWithNameContaining(String needle) {
+    return candidates(productNames, needle);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDataImported(DataImportedEvent event) {
+    if (event.getTable() == DataTable.CUSTOMERS || event.getTable() == DataTable.PRODUCTS) {
+      rebuild();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onCustomerChanged(CustomerChangedEvent event) {
+    if (event.getBefore() != null) {
+      customerEmails.remove(event.getBefore().getCustomerId());
+    }
+    if (event.getAfter() != null) {
+      customerEmails.put(event.getAfter().getCustomerId(), event.getAfter().getEmail());
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onProductChanged(ProductChangedEvent event) {
+    if (event.getBefore() != null) {
+      productNames.remove(event.getBefore().getProductId());
+    }
+    if (event.getAfter() != null) {
+      productNames.put(event.getAfter().getProductId(), event.getAfter().getName());
+    }
+  }
+
+  private List<Long> candidates(TrigramIndex index, String needle) {
+    if (needle == null) {
+      return null;
+    }
+    String lower = needle.toLowerCase().trim();
+    if (lower.length() < TrigramIndex.GRAM) {
+      return null;
+    }
+    List<Long> ids = index.containing(lower);
+    return ids.size() > MAX_CANDIDATES ? null : ids;
+  }
+}
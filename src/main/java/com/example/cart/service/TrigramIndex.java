@@ -0,0 +1,82 @@
+package com.example.cart.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+final class TrigramIndex {
+  static final int GRAM = 3;
+
+  private final Map<Long, String> values = new HashMap<>();
+  private final Map<Long, Set<Long>> postings = new HashMap<>();
+
+  void put(Long id, String value) {
+    remove(id);
+    if (id == null || value == null) {
+      return;
+    }
+    String lower = value.toLowerCase();
+    values.put(id, lower);
+    for (Long gram : grams(lower)) {
+      postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+    }
+  }
+
+  void remove(Long id) {
+    String old = values.remove(id);
+    if (old == null) {
+      return;
+    }
+    for (Long gram : grams(old)) {
+      Set<Long> ids = postings.get(gram);
+      if (ids != null) {
+        ids.remove(id);
+        if (ids.isEmpty()) {
+          postings.remove(gram);
+        }
+      }
+    }
+  }
+
+  List<Long> containing(String lowerNeedle) {
+    List<Set<Long>> lists = new ArrayList<>();
+    for (Long gram : grams(lowerNeedle)) {
+      Set<Long> ids = postings.get(gram);
+      if (ids == null) {
+        return List.of();
+      }
+      lists.add(ids);
+    }
+    lists.sort(Comparator.comparingInt(Set::size));
+
+    List<Long> matches = new ArrayList<>();
+    for (Long id : lists.get(0)) {
+      if (containsAll(lists, id) && values.get(id).contains(lowerNeedle)) {
+        matches.add(id);
+      }
+    }
+    matches.sort(Comparator.naturalOrder());
+    return matches;
+  }
+
+  private static boolean containsAll(List<Set<Long>> lists, Long id) {
+    for (int i = 1; i < lists.size(); i++) {
+      if (!lists.get(i).contains(id)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Set<Long> grams(String value) {
+    Set<Long> grams = new HashSet<>();
+    for (int i = 0; i + GRAM <= value.length(); i++) {
+      grams.add(((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2));
+    }
+    return grams;
+  }
+}
@@ -1,28 +1,88 @@
 package com.example.cart.service;
 
-import com.example.cart.repo.CartItemRepository;
-import com.example.cart.repo.CartRepository;
-import com.example.cart.repo.CustomerRepository;
-import com.example.cart.repo.ProductRepository;
-import com.example.cart.repo.PromoCodeRepository;
+import com.example.cart.dto.KeysetPage;
+import com.example.cart.dto.PageCursor;
+import jakarta.persistence.EntityManager;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.ui.Model;
+import org.thymeleaf.context.LazyContextVariable;
 
 @Service
 @RequiredArgsConstructor
 public class ViewDataService {
-  private final CustomerRepository customerRepository;
-  private final ProductRepository productRepository;
-  private final CartRepository cartRepository;
-  private final CartItemRepository cartItemRepository;
-  private final PromoCodeRepository promoCodeRepository;
+  private final DataSearchService dataSearchService;
+  private final ProductPriceIndex productPriceIndex;
+  private final EntityManager entityManager;
 
   public void populateLists(Model model) {
-    model.addAttribute("customers", customerRepository.findAll());
-    model.addAttribute("products", productRepository.findAllProducts());
-    model.addAttribute("carts", cartRepository.findAll());
-    model.addAttribute("cartItems", cartItemRepository.findAll());
-    model.addAttribute("promoCodes", promoCodeRepository.findAll());
+    populateLists(model, false);
+  }
+
+  public void populateLists(Model model, boolean stream) {
+    addLazyTable(model, "customers", stream,
+        cursor -> dataSearchService.searchCustomers(null, null, null, null, cursor));
+    addLazyTable(model, "products", stream,
+        cursor -> dataSearchService.searchProducts(null, null, null, null, null, cursor));
+    addLazyTable(model, "carts", stream,
+        cursor -> dataSearchService.searchCarts(null, null, null, cursor));
+    addLazyTable(model, "cartItems", stream,
+        cursor -> dataSearchService.searchCartItems(null, null, null, cursor));
+    addLazyTable(model, "promoCodes", stream,
+        cursor -> dataSearchService.searchPromos(null, null, null, cursor));
+    model.addAttribute("priceHistogram", lazy(productPriceIndex::histogram));
+  }
+
+  public void addPage(Model model, String name, KeysetPage<?> page) {
+    model.addAttribute(name, page.getItems());
+    model.addAttribute(name + "Page", page);
+  }
+
+  public <T> void addResults(
+      Model model,
+      String name,
+      PageCursor cursor,
+      boolean stream,
+      Function<PageCursor, KeysetPage<T>> loader) {
+    if (stream) {
+      addStream(model, name, loader);
+    } else {
+      addPage(model, name, loader.apply(cursor));
+    }
+  }
+
+  private <T> void addStream(Model model, String name, Function<PageCursor, KeysetPage<T>> loader) {
+    model.addAttribute(name, lazy(() -> rows(loader)));
+    model.addAttribute(name + "Page", null);
+  }
+
+  private <T> void addLazyTable(
+      Model model,
+      String name,
+      boolean stream,
+      Function<PageCursor, KeysetPage<T>> loader) {
+    if (stream) {
+      addStream(model, name, loader);
+      return;
+    }
+    LazyContextVariable<KeysetPage<T>> page = lazy(() -> loader.apply(PageCursor.first()));
+    model.addAttribute(name, lazy(() -> page.getValue().getItems()));
+    model.addAttribute(name + "Page", page);
+  }
+
+  private <T> Iterator<T> rows(Function<PageCursor, KeysetPage<T>> loader) {
+    return new KeysetIterator<>(loader, entityManager::clear);
+  }
+
+  private static <T> LazyContextVariable<T> lazy(Supplier<T> loader) {
+    return new LazyContextVariable<>() {
+      @Override
+      protected T loadValue() {
+        return loader.get();
+      }
+    };
   }
 }
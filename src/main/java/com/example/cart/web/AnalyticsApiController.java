@@ -0,0 +1,105 @@
+package com.example.cart.web;
+
+import com.example.cart.dto.CartEfficiencyDto;
+import com.example.cart.dto.CartFinalTotalDto;
+import com.example.cart.dto.CartTotalDto;
+import com.example.cart.dto.CategoryCountDto;
+import com.example.cart.dto.CustomerCartCountDto;
+import com.example.cart.dto.OutOfStockProductDto;
+import com.example.cart.dto.ProductCountDto;
+import com.example.cart.dto.PromoCodeDiscountDto;
+import com.example.cart.dto.PromoCodeDto;
+import com.example.cart.service.CartAnalyticsService;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsApiController {
+  private static final int MAX_LIMIT = 1000;
+  private static final int DEFAULT_TOP_PRODUCTS = 5;
+
+  private final CartAnalyticsService service;
+
+  @GetMapping("/active-cart-totals")
+  public List<CartTotalDto> activeCartTotals(
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(defaultValue = "0") int offset) {
+    return slice(service.calculateActiveCartTotals(), limit, offset);
+  }
+
+  @GetMapping("/top-products")
+  public List<ProductCountDto> topProducts(
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(defaultValue = "0") int offset) {
+    int size = limit == null ? DEFAULT_TOP_PRODUCTS : clampLimit(limit);
+    int k = (int) Math.min((long) Math.max(offset, 0) + size, Integer.MAX_VALUE);
+    return slice(service.topProductsByAdditions(k), size, offset);
+  }
+
+  @GetMapping("/active-carts-per-customer")
+  public List<CustomerCartCountDto> activeCartsPerCustomer(
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(defaultValue = "0") int offset) {
+    return slice(service.activeCartCountPerCustomer(), limit, offset);
+  }
+
+  @GetMapping("/category-counts")
+  public List<CategoryCountDto> categoryCounts(
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(defaultValue = "0") int offset) {
+    return slice(service.categoryItemCounts(), limit, offset);
+  }
+
+  @GetMapping("/final-totals-with-promo")
+  public List<CartFinalTotalDto> finalTotalsWithPromo(
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(defaultValue = "0") int offset) {
+    return slice(service.finalTotalsWithPromo(), limit, offset);
+  }
+
+  @GetMapping("/unused-promos")
+  public List<PromoCodeDto> unusedPromos(
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(defaultValue = "0") int offset) {
+    return slice(service.activePromoCodesNeverUsed(), limit, offset);
+  }
+
+  @GetMapping("/promo-discount-summary")
+  public List<PromoCodeDiscountDto> promoDiscountSummary(
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(defaultValue = "0") int offset) {
+    return slice(service.totalDiscountIfAppliedToEligibleCarts(), limit, offset);
+  }
+
+  @GetMapping("/out-of-stock-products")
+  public List<OutOfStockProductDto> outOfStockProducts(
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(defaultValue = "0") int offset) {
+    return slice(service.productsInCartsOutOfStock(), limit, offset);
+  }
+
+  @GetMapping("/weighted-efficiency")
+  public List<CartEfficiencyDto> weightedEfficiency(
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(defaultValue = "0") int offset) {
+    return slice(service.weightedCartEfficiencyScores(), limit, offset);
+  }
+
+  private <T> List<T> slice(List<T> rows, Integer limit, int offset) {
+    int from = Math.min(Math.max(offset, 0), rows.size());
+    if (limit == null) {
+      return rows.subList(from, rows.size());
+    }
+    return rows.subList(from, (int) Math.min(rows.size(), (long) from + clampLimit(limit)));
+  }
+
+  private int clampLimit(int limit) {
+    return Math.max(0, Math.min(limit, MAX_LIMIT));
+  }
+}
@@ -1,22 +1,36 @@
 package com.example.cart.web;
 
+import com.example.cart.service.AnalyticsDashboard;
+import com.example.cart.service.AnalyticsDashboardService;
 import com.example.cart.service.CartAnalyticsService;
 import com.example.cart.service.ViewDataService;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @Controller
 @RequiredArgsConstructor
 public class AnalyticsController {
+  private static final int MAX_TOP_PRODUCTS = 100;
+  private static final Set<String> TABS = Set.of("customers", "products", "carts", "promos", "analytics");
+
   private final CartAnalyticsService service;
+  private final AnalyticsDashboardService dashboardService;
   private final ViewDataService viewDataService;
 
   @GetMapping("/")
-  public String index(Model model) {
-    viewDataService.populateLists(model);
+  public String index(
+      @RequestParam(required = false) String tab,
+      @RequestParam(defaultValue = "false") boolean stream,
+      Model model) {
+    if (tab != null && TABS.contains(tab)) {
+      model.addAttribute("activeTab", tab);
+    }
+    viewDataService.populateLists(model, stream);
     return "index";
   }
 
@@ -29,9 +43,11 @@ public class AnalyticsController {
   }
 
   @PostMapping("/analytics/top-products")
-  public String topProducts(Model model) {
+  public String topProducts(@RequestParam(defaultValue = "5") int limit, Model model) {
+    int k = Math.max(1, Math.min(limit, MAX_TOP_PRODUCTS));
     model.addAttribute("activeTab", "analytics");
-    model.addAttribute("topProducts", service.top5ProductsByAdditions());
+    model.addAttribute("topProductsLimit", k);
+    model.addAttribute("topProducts", service.topProductsByAdditions(k));
     viewDataService.populateLists(model);
     return "index";
   }
@@ -84,6 +100,17 @@ public class AnalyticsController {
     return "index";
   }
 
+  @PostMapping("/analytics/dashboard")
+  public String dashboard(Model model) {
+    AnalyticsDashboard dashboard = dashboardService.build();
+    model.addAttribute("activeTab", "analytics");
+    model.addAttribute("topProductsLimit", 5);
+    model.addAllAttributes(dashboard.getResults());
+    model.addAttribute("unavailableAnalytics", dashboard.getUnavailable());
+    viewDataService.populateLists(model);
+    return "index";
+  }
+
   @PostMapping("/analytics/weighted-efficiency")
   public String weightedEfficiency(Model model) {
     model.addAttribute("activeTab", "analytics");
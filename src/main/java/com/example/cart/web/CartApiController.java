@@ -0,0 +1,35 @@
+package com.example.cart.web;
+
+import com.example.cart.dto.AddToCartResultDto;
+import com.example.cart.dto.CartItemQuantityDto;
+import com.example.cart.service.CartItemService;
+import jakarta.persistence.EntityNotFoundException;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/carts")
+@RequiredArgsConstructor
+public class CartApiController {
+  private final CartItemService cartItemService;
+
+  @PostMapping("/{cartId}/items")
+  public AddToCartResultDto addItems(
+      @PathVariable Long cartId,
+      @RequestBody List<CartItemQuantityDto> items) {
+    try {
+      return cartItemService.addItems(cartId, items);
+    } catch (EntityNotFoundException ex) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
+    } catch (IllegalArgumentException | ArithmeticException ex) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.example.cart.web;
+
+import com.example.cart.service.DataVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+@Component
+@RequiredArgsConstructor
+public class DataVersionInterceptor implements HandlerInterceptor {
+  private final DataVersions dataVersions;
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+      return true;
+    }
+    Map<String, ?> flash = RequestContextUtils.getInputFlashMap(request);
+    if (flash != null && !flash.isEmpty()) {
+      return true;
+    }
+    response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+    return !new ServletWebRequest(request, response).checkNotModified(dataVersions.etag());
+  }
+}
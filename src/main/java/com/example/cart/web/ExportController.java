@@ -0,0 +1,71 @@
+package com.example.cart.web;
+
+import com.example.cart.model.CartItem;
+import com.example.cart.service.CartItemExportService;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@Controller
+@RequiredArgsConstructor
+public class ExportController {
+  private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+  private final CartItemExportService exportService;
+
+  @GetMapping("/manage/cart-item/export")
+  public ResponseEntity<StreamingResponseBody> exportCartItems(
+      @RequestParam(required = false) String cartId,
+      @RequestParam(required = false) String productId,
+      @RequestParam(required = false) String minQuantity) {
+    StreamingResponseBody body = out -> {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+      writer.write("cart_item_id,cart_id,product_id,name,category,base_price,quantity,added_date\n");
+      exportService.streamCartItems(cartId, productId, minQuantity, item -> writeRow(writer, item));
+      writer.flush();
+    };
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"cart-items.csv\"")
+        .contentType(TEXT_CSV)
+        .body(body);
+  }
+
+  private void writeRow(Writer writer, CartItem item) {
+    try {
+      writer.write(String.join(",",
+          csv(item.getCartItemId()),
+          csv(item.getCart() == null ? null : item.getCart().getCartId()),
+          csv(item.getSourceProductId()),
+          csv(item.getName()),
+          csv(item.getCategory()),
+          csv(item.getBasePrice() == null ? null : item.getBasePrice().toPlainString()),
+          csv(item.getQuantity()),
+          csv(item.getAddedDate())));
+      writer.write('\n');
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private String csv(Object value) {
+    if (value == null) {
+      return "";
+    }
+    String text = value.toString();
+    if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+      return text;
+    }
+    return '"' + text.replace("\"", "\"\"") + '"';
+  }
+}
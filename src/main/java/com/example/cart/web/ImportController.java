@@ -0,0 +1,46 @@
+package com.example.cart.web;
+
+import com.example.cart.dto.ImportReport;
+import com.example.cart.event.DataTable;
+import com.example.cart.service.BulkImportService;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequiredArgsConstructor
+public class ImportController {
+  private static final Map<String, DataTable> TABLES = Map.of(
+      "customers", DataTable.CUSTOMERS,
+      "products", DataTable.PRODUCTS,
+      "carts", DataTable.CARTS,
+      "cart-items", DataTable.CART_ITEMS,
+      "promo-codes", DataTable.PROMO_CODES);
+
+  private final BulkImportService importService;
+
+  @PostMapping("/api/import/{table}")
+  public ImportReport importRows(
+      @PathVariable String table,
+      @RequestParam(required = false) String format,
+      @RequestHeader(name = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+      InputStream body) throws IOException {
+    DataTable target = TABLES.get(table);
+    if (target == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown table: " + table);
+    }
+    boolean ndjson = format != null
+        ? format.equalsIgnoreCase("ndjson")
+        : contentType != null && contentType.contains("json");
+    return importService.importRows(target, ndjson, body);
+  }
+}
@@ -1,5 +1,18 @@
 package com.example.cart.web;
 
+import com.example.cart.dto.AddToCartResultDto;
+import com.example.cart.dto.CartItemQuantityDto;
+import com.example.cart.dto.PageCursor;
+import com.example.cart.event.CartChangedEvent;
+import com.example.cart.event.CartItemChangedEvent;
+import com.example.cart.event.CartItemState;
+import com.example.cart.event.CartState;
+import com.example.cart.event.CustomerChangedEvent;
+import com.example.cart.event.CustomerState;
+import com.example.cart.event.ProductChangedEvent;
+import com.example.cart.event.ProductState;
+import com.example.cart.event.PromoCodeChangedEvent;
+import com.example.cart.event.PromoCodeState;
 import com.example.cart.model.Cart;
 import com.example.cart.model.CartItem;
 import com.example.cart.model.Customer;
@@ -12,14 +25,20 @@ import com.example.cart.repo.CartRepository;
 import com.example.cart.repo.CustomerRepository;
 import com.example.cart.repo.ProductRepository;
 import com.example.cart.repo.PromoCodeRepository;
+import com.example.cart.service.CartItemService;
 import com.example.cart.service.DataSearchService;
+import com.example.cart.service.ProductCatalog;
 import com.example.cart.service.ViewDataService;
+import jakarta.persistence.EntityNotFoundException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -33,8 +52,11 @@ public class ManagementController {
   private final CartRepository cartRepository;
   private final CartItemRepository cartItemRepository;
   private final PromoCodeRepository promoCodeRepository;
+  private final CartItemService cartItemService;
   private final DataSearchService dataSearchService;
+  private final ProductCatalog productCatalog;
   private final ViewDataService viewDataService;
+  private final ApplicationEventPublisher eventPublisher;
 
   @PostMapping("/manage/customer/create")
   public String createCustomer(
@@ -51,6 +73,7 @@ public class ManagementController {
     customer.setRegistrationDate(date);
     customer.setLoyaltyLevel(loyaltyLevel);
     customerRepository.save(customer);
+    eventPublisher.publishEvent(new CustomerChangedEvent(null, CustomerState.of(customer)));
 
     return redirectWithMessage(redirectAttributes, "Покупатель добавлен", "customers");
   }
@@ -63,8 +86,10 @@ public class ManagementController {
           "Нельзя удалить покупателя: есть связанные корзины",
           "customers");
     }
-    if (customerRepository.existsById(customerId)) {
-      customerRepository.deleteById(customerId);
+    Optional<Customer> customer = customerRepository.findById(customerId);
+    if (customer.isPresent()) {
+      customerRepository.delete(customer.get());
+      eventPublisher.publishEvent(new CustomerChangedEvent(CustomerState.of(customer.get()), null));
       return redirectWithMessage(redirectAttributes, "Покупатель удален", "customers");
     }
     return redirectWithMessage(redirectAttributes, "Покупатель не найден", "customers");
@@ -83,6 +108,7 @@ public class ManagementController {
     }
 
     Customer customer = customerOptional.get();
+    CustomerState before = CustomerState.of(customer);
     if (email != null && !email.isBlank()) {
       customer.setEmail(email.trim());
     }
@@ -94,6 +120,7 @@ public class ManagementController {
     }
 
     customerRepository.save(customer);
+    eventPublisher.publishEvent(new CustomerChangedEvent(before, CustomerState.of(customer)));
     return redirectWithMessage(redirectAttributes, "Покупатель обновлен", "customers");
   }
 
@@ -110,14 +137,17 @@ public class ManagementController {
     product.setBasePrice(basePrice);
     product.setInStock(inStock);
     productRepository.save(product);
+    eventPublisher.publishEvent(new ProductChangedEvent(null, ProductState.of(product)));
 
     return redirectWithMessage(redirectAttributes, "Товар добавлен", "products");
   }
 
   @PostMapping("/manage/product/delete")
   public String deleteProduct(@RequestParam Long productId, RedirectAttributes redirectAttributes) {
-    if (productRepository.existsProductById(productId)) {
-      productRepository.deleteById(productId);
+    Optional<Product> product = productRepository.findById(productId);
+    if (product.isPresent()) {
+      productRepository.delete(product.get());
+      eventPublisher.publishEvent(new ProductChangedEvent(ProductState.of(product.get()), null));
       return redirectWithMessage(redirectAttributes, "Товар удален", "products");
     }
     return redirectWithMessage(redirectAttributes, "Товар не найден", "products");
@@ -131,12 +161,13 @@ public class ManagementController {
       @RequestParam(required = false) String basePrice,
       @RequestParam(required = false) String inStock,
       RedirectAttributes redirectAttributes) {
-    Optional<Product> productOptional = productRepository.findProductById(productId);
+    Optional<Product> productOptional = productRepository.findById(productId);
     if (productOptional.isEmpty()) {
       return redirectWithMessage(redirectAttributes, "Товар не найден", "products");
     }
 
     Product product = productOptional.get();
+    ProductState before = ProductState.of(product);
     if (name != null && !name.isBlank()) {
       product.setName(name.trim());
     }
@@ -152,9 +183,11 @@ public class ManagementController {
     }
 
     productRepository.save(product);
+    eventPublisher.publishEvent(new ProductChangedEvent(before, ProductState.of(product)));
     return redirectWithMessage(redirectAttributes, "Товар обновлен", "products");
   }
 
+  @Transactional
   @PostMapping("/manage/cart/create")
   public String createCart(
       @RequestParam Long customerId,
@@ -172,23 +205,28 @@ public class ManagementController {
     cart.updateActive(active);
     cart.updatePromoCode(promoCode);
     cartRepository.save(cart);
+    eventPublisher.publishEvent(new CartChangedEvent(null, CartState.of(cart)));
 
     return redirectWithMessage(redirectAttributes, "Корзина создана", "carts");
   }
 
+  @Transactional
   @PostMapping("/manage/cart/delete")
   public String deleteCart(@RequestParam Long cartId, RedirectAttributes redirectAttributes) {
+    Optional<Cart> cart = cartRepository.findByIdForUpdate(cartId);
+    if (cart.isEmpty()) {
+      return redirectWithMessage(redirectAttributes, "Корзина не найдена", "carts");
+    }
     if (cartItemRepository.existsByCart_CartId(cartId)) {
       return redirectWithMessage(
           redirectAttributes,
           "Нельзя удалить корзину: есть позиции",
           "carts");
     }
-    if (cartRepository.existsById(cartId)) {
-      cartRepository.deleteById(cartId);
-      return redirectWithMessage(redirectAttributes, "Корзина удалена", "carts");
-    }
-    return redirectWithMessage(redirectAttributes, "Корзина не найдена", "carts");
+    CartState before = CartState.of(cart.get());
+    cartRepository.delete(cart.get());
+    eventPublisher.publishEvent(new CartChangedEvent(before, null));
+    return redirectWithMessage(redirectAttributes, "Корзина удалена", "carts");
   }
 
   @PostMapping("/manage/cart-item/create")
@@ -201,31 +239,34 @@ public class ManagementController {
       return redirectWithMessage(redirectAttributes, "Количество должно быть больше нуля", "carts");
     }
 
-    Optional<Cart> cart = cartRepository.findById(cartId);
-    Optional<Product> product = productRepository.findProductById(productId);
-    if (cart.isEmpty() || product.isEmpty()) {
+    AddToCartResultDto result;
+    try {
+      result = cartItemService.addItems(cartId, List.of(new CartItemQuantityDto(productId, quantity)));
+    } catch (EntityNotFoundException | IllegalArgumentException ex) {
       return redirectWithMessage(redirectAttributes, "Корзина или товар не найдены", "carts");
     }
 
-    CartItem item = new CartItem();
-    item.updateCart(cart.get());
-    item.updateProductSnapshot(product.get());
-    item.updateQuantity(quantity);
-    item.updateAddedDate(LocalDateTime.now());
-    cartItemRepository.save(item);
-
-    return redirectWithMessage(redirectAttributes, "Позиция добавлена", "carts");
+    return redirectWithMessage(
+        redirectAttributes,
+        result.getIncrementedLines() > 0 ? "Количество позиции увеличено" : "Позиция добавлена",
+        "carts");
   }
 
+  @Transactional
   @PostMapping("/manage/cart-item/delete")
   public String deleteCartItem(@RequestParam Long cartItemId, RedirectAttributes redirectAttributes) {
-    if (cartItemRepository.existsById(cartItemId)) {
-      cartItemRepository.deleteById(cartItemId);
+    cartItemRepository.findCartIdById(cartItemId).ifPresent(cartRepository::findByIdForUpdate);
+    Optional<CartItem> item = cartItemRepository.findById(cartItemId);
+    if (item.isPresent()) {
+      CartItemState before = CartItemState.of(item.get());
+      cartItemRepository.delete(item.get());
+      eventPublisher.publishEvent(new CartItemChangedEvent(before, null));
       return redirectWithMessage(redirectAttributes, "Позиция удалена", "carts");
     }
     return redirectWithMessage(redirectAttributes, "Позиция не найдена", "carts");
   }
 
+  @Transactional
   @PostMapping("/manage/cart/update")
   public String updateCart(
       @RequestParam Long cartId,
@@ -234,12 +275,13 @@ public class ManagementController {
       @RequestParam(defaultValue = "false") boolean clearPromo,
       @RequestParam Boolean active,
       RedirectAttributes redirectAttributes) {
-    Optional<Cart> cartOptional = cartRepository.findById(cartId);
+    Optional<Cart> cartOptional = cartRepository.findByIdForUpdate(cartId);
     if (cartOptional.isEmpty()) {
       return redirectWithMessage(redirectAttributes, "Корзина не найдена", "carts");
     }
 
     Cart cart = cartOptional.get();
+    CartState before = CartState.of(cart);
     if (customerId != null) {
       Optional<Customer> customer = customerRepository.findById(customerId);
       if (customer.isEmpty()) {
@@ -259,9 +301,11 @@ public class ManagementController {
     }
 
     cartRepository.save(cart);
+    eventPublisher.publishEvent(new CartChangedEvent(before, CartState.of(cart)));
     return redirectWithMessage(redirectAttributes, updatedEntityMessage(cart.getEntityLabel()), "carts");
   }
 
+  @Transactional
   @PostMapping("/manage/cart-item/update")
   public String updateCartItem(
       @RequestParam Long cartItemId,
@@ -269,36 +313,42 @@ public class ManagementController {
       @RequestParam(required = false) Long productId,
       @RequestParam(required = false) Integer quantity,
       RedirectAttributes redirectAttributes) {
+    cartItemRepository.findCartIdById(cartItemId).ifPresent(cartRepository::findByIdForUpdate);
     Optional<CartItem> itemOptional = cartItemRepository.findById(cartItemId);
     if (itemOptional.isEmpty()) {
       return redirectWithMessage(redirectAttributes, "Позиция корзины не найдена", "carts");
     }
 
     CartItem item = itemOptional.get();
-    if (cartId != null) {
-      Optional<Cart> cart = cartRepository.findById(cartId);
+    CartItemState before = CartItemState.of(item);
+    Optional<Cart> cart = Optional.empty();
+    if (cartId != null && !cartId.equals(item.getCart().getCartId())) {
+      cart = cartRepository.findByIdForUpdate(cartId);
       if (cart.isEmpty()) {
         return redirectWithMessage(redirectAttributes, "Корзина не найдена", "carts");
       }
-      item.updateCart(cart.get());
     }
 
+    Optional<ProductState> product = Optional.empty();
     if (productId != null) {
-      Optional<Product> product = productRepository.findProductById(productId);
+      product = productCatalog.findById(productId);
       if (product.isEmpty()) {
         return redirectWithMessage(redirectAttributes, "Товар не найден", "carts");
       }
-      item.updateProductSnapshot(product.get());
     }
 
+    if (quantity != null && quantity <= 0) {
+      return redirectWithMessage(redirectAttributes, "Количество должно быть больше нуля", "carts");
+    }
+
+    cart.ifPresent(item::updateCart);
+    product.ifPresent(item::updateProductSnapshot);
     if (quantity != null) {
-      if (quantity <= 0) {
-        return redirectWithMessage(redirectAttributes, "Количество должно быть больше нуля", "carts");
-      }
       item.updateQuantity(quantity);
     }
 
     cartItemRepository.save(item);
+    eventPublisher.publishEvent(new CartItemChangedEvent(before, CartItemState.of(item)));
     return redirectWithMessage(redirectAttributes, updatedEntityMessage(item.getEntityLabel()), "carts");
   }
 
@@ -318,14 +368,17 @@ public class ManagementController {
     promoCode.setApplicableCategory(
         applicableCategory == null || applicableCategory.isBlank() ? null : applicableCategory.trim());
     promoCodeRepository.save(promoCode);
+    eventPublisher.publishEvent(new PromoCodeChangedEvent(null, PromoCodeState.of(promoCode)));
 
     return redirectWithMessage(redirectAttributes, "Промокод создан", "promos");
   }
 
   @PostMapping("/manage/promo/delete")
   public String deletePromo(@RequestParam String code, RedirectAttributes redirectAttributes) {
-    if (promoCodeRepository.existsById(code)) {
-      promoCodeRepository.deleteById(code);
+    Optional<PromoCode> promoCode = promoCodeRepository.findById(code);
+    if (promoCode.isPresent()) {
+      promoCodeRepository.delete(promoCode.get());
+      eventPublisher.publishEvent(new PromoCodeChangedEvent(PromoCodeState.of(promoCode.get()), null));
       return redirectWithMessage(redirectAttributes, "Промокод удален", "promos");
     }
     return redirectWithMessage(redirectAttributes, "Промокод не найден", "promos");
@@ -346,6 +399,7 @@ public class ManagementController {
     }
 
     PromoCode promoCode = promoOptional.get();
+    PromoCodeState before = PromoCodeState.of(promoCode);
     if (discountType != null && !discountType.isBlank()) {
       promoCode.setDiscountType(DiscountType.valueOf(discountType.trim().toUpperCase()));
     }
@@ -363,6 +417,7 @@ public class ManagementController {
     }
 
     promoCodeRepository.save(promoCode);
+    eventPublisher.publishEvent(new PromoCodeChangedEvent(before, PromoCodeState.of(promoCode)));
     return redirectWithMessage(redirectAttributes, "Промокод обновлен", "promos");
   }
 
@@ -372,10 +427,13 @@ public class ManagementController {
       @RequestParam(required = false) String loyaltyLevel,
       @RequestParam(required = false) String registeredFrom,
       @RequestParam(required = false) String registeredTo,
+      PageCursor cursor,
+      @RequestParam(defaultValue = "false") boolean stream,
       Model model) {
     viewDataService.populateLists(model);
-    model.addAttribute("customers",
-        dataSearchService.searchCustomers(email, loyaltyLevel, registeredFrom, registeredTo));
+    viewDataService.addResults(model, "customers", cursor, stream,
+        page -> dataSearchService.searchCustomers(email, loyaltyLevel, registeredFrom, registeredTo, page));
+    model.addAttribute("searchTable", "customers");
     model.addAttribute("activeTab", "customers");
     return "index";
   }
@@ -387,10 +445,13 @@ public class ManagementController {
       @RequestParam(required = false) String inStock,
       @RequestParam(required = false) String minPrice,
       @RequestParam(required = false) String maxPrice,
+      PageCursor cursor,
+      @RequestParam(defaultValue = "false") boolean stream,
       Model model) {
     viewDataService.populateLists(model);
-    model.addAttribute("products",
-        dataSearchService.searchProducts(name, category, inStock, minPrice, maxPrice));
+    viewDataService.addResults(model, "products", cursor, stream,
+        page -> dataSearchService.searchProducts(name, category, inStock, minPrice, maxPrice, page));
+    model.addAttribute("searchTable", "products");
     model.addAttribute("activeTab", "products");
     return "index";
   }
@@ -400,10 +461,13 @@ public class ManagementController {
       @RequestParam(required = false) String customerId,
       @RequestParam(required = false) String active,
       @RequestParam(required = false) String promoCode,
+      PageCursor cursor,
+      @RequestParam(defaultValue = "false") boolean stream,
       Model model) {
     viewDataService.populateLists(model);
-    model.addAttribute("carts",
-        dataSearchService.searchCarts(customerId, active, promoCode));
+    viewDataService.addResults(model, "carts", cursor, stream,
+        page -> dataSearchService.searchCarts(customerId, active, promoCode, page));
+    model.addAttribute("searchTable", "carts");
     model.addAttribute("activeTab", "carts");
     return "index";
   }
@@ -413,10 +477,13 @@ public class ManagementController {
       @RequestParam(required = false) String cartId,
       @RequestParam(required = false) String productId,
       @RequestParam(required = false) String minQuantity,
+      PageCursor cursor,
+      @RequestParam(defaultValue = "false") boolean stream,
       Model model) {
     viewDataService.populateLists(model);
-    model.addAttribute("cartItems",
-        dataSearchService.searchCartItems(cartId, productId, minQuantity));
+    viewDataService.addResults(model, "cartItems", cursor, stream,
+        page -> dataSearchService.searchCartItems(cartId, productId, minQuantity, page));
+    model.addAttribute("searchTable", "cartItems");
     model.addAttribute("activeTab", "carts");
     return "index";
   }
@@ -426,10 +493,13 @@ public class ManagementController {
       @RequestParam(required = false) String discountType,
       @RequestParam(required = false) String active,
       @RequestParam(required = false) String applicableCategory,
+      PageCursor cursor,
+      @RequestParam(defaultValue = "false") boolean stream,
       Model model) {
     viewDataService.populateLists(model);
-    model.addAttribute("promoCodes",
-        dataSearchService.searchPromos(discountType, active, applicableCategory));
+    viewDataService.addResults(model, "promoCodes", cursor, stream,
+        page -> dataSearchService.searchPromos(discountType, active, applicableCategory, page));
+    model.addAttribute("searchTable", "promoCodes");
     model.addAttribute("activeTab", "promos");
     return "index";
   }
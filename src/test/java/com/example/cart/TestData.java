@@ -0,0 +1,106 @@
+package com.example.cart;
+
+import com.example.cart.event.DataImportedEvent;
+import com.example.cart.event.DataTable;
+import com.example.cart.event.ProductState;
+import com.example.cart.model.Cart;
+import com.example.cart.model.CartItem;
+import com.example.cart.model.Customer;
+import com.example.cart.model.DiscountType;
+import com.example.cart.model.LoyaltyLevel;
+import com.example.cart.model.Product;
+import com.example.cart.model.PromoCode;
+import com.example.cart.repo.CartItemRepository;
+import com.example.cart.repo.CartRepository;
+import com.example.cart.repo.CustomerRepository;
+import com.example.cart.repo.ProductRepository;
+import com.example.cart.repo.PromoCodeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class TestData {
+  static final String[] CATEGORIES = {"Books", "books", "", " ", "Toys", "Garden", null};
+  static final String[] PROMO_CODES = {"P10", "F5", "BOOK", "OFF", "TOYS"};
+
+  private final JdbcTemplate jdbcTemplate;
+  private final EntityManagerFactory entityManagerFactory;
+  private final ApplicationEventPublisher eventPublisher;
+  private final CustomerRepository customerRepository;
+  private final ProductRepository productRepository;
+  private final CartRepository cartRepository;
+  private final CartItemRepository cartItemRepository;
+  private final PromoCodeRepository promoCodeRepository;
+
+  public void reset() {
+    for (String table : List.of("cart_items", "carts", "customers", "products", "promo_codes")) {
+      jdbcTemplate.update("delete from " + table);
+    }
+    entityManagerFactory.getCache().evictAll();
+    for (DataTable table : DataTable.values()) {
+      eventPublisher.publishEvent(new DataImportedEvent(table));
+    }
+  }
+
+  public void seed(Random random, int customers, int products, int carts) {
+    List<Customer> savedCustomers = new ArrayList<>();
+    for (int i = 0; i < customers; i++) {
+      Customer customer = new Customer();
+      customer.setEmail("user" + i + "@example.com");
+      customer.setRegistrationDate(LocalDate.of(2024, 1, 1).plusDays(random.nextInt(10)));
+      customer.setLoyaltyLevel(LoyaltyLevel.values()[random.nextInt(LoyaltyLevel.values().length)]);
+      savedCustomers.add(customerRepository.save(customer));
+    }
+
+    List<Product> savedProducts = new ArrayList<>();
+    for (int i = 0; i < products; i++) {
+      Product product = new Product();
+      product.setName((i % 2 == 0 ? "Book " : "toy ") + i);
+      product.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+      product.setBasePrice(BigDecimal.valueOf(random.nextInt(10_000), 2));
+      product.setInStock(random.nextInt(3) != 0);
+      savedProducts.add(productRepository.save(product));
+    }
+
+    for (int i = 0; i < PROMO_CODES.length; i++) {
+      promoCodeRepository.save(new PromoCode(
+          PROMO_CODES[i],
+          i % 2 == 0 ? DiscountType.PERCENT : DiscountType.FIXED_AMOUNT,
+          i % 2 == 0 ? BigDecimal.TEN : new BigDecimal("5.50"),
+          i != 3,
+          i == 2 ? "books" : null));
+    }
+
+    for (int i = 0; i < carts; i++) {
+      Cart cart = new Cart();
+      cart.updateCustomer(savedCustomers.get(random.nextInt(savedCustomers.size())));
+      cart.updateActive(random.nextBoolean());
+      cart.updateCreatedDate(LocalDateTime.of(2024, 2, 1, 0, 0).plusHours(i));
+      int promo = random.nextInt(PROMO_CODES.length + 3);
+      cart.updatePromoCode(promo < PROMO_CODES.length ? PROMO_CODES[promo] : promo == PROMO_CODES.length ? "UNKNOWN" : null);
+      cartRepository.save(cart);
+      for (int k = random.nextInt(6); k > 0; k--) {
+        CartItem item = new CartItem();
+        item.updateCart(cart);
+        item.updateProductSnapshot(ProductState.of(savedProducts.get(random.nextInt(savedProducts.size()))));
+        item.updateQuantity(1 + random.nextInt(5));
+        item.updateAddedDate(cart.getCreatedDate().plusMinutes(k));
+        cartItemRepository.save(item);
+      }
+    }
+
+    for (DataTable table : DataTable.values()) {
+      eventPublisher.publishEvent(new DataImportedEvent(table));
+    }
+  }
+}
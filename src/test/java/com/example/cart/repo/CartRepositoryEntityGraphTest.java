@@ -0,0 +1,99 @@
+package com.example.cart.repo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.cart.event.ProductState;
+import com.example.cart.model.Cart;
+import com.example.cart.model.CartItem;
+import com.example.cart.model.Customer;
+import com.example.cart.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CartRepositoryEntityGraphTest {
+  private static final int CARTS = 30;
+  private static final int ITEMS_PER_CART = 3;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private CartRepository cartRepository;
+
+  @BeforeEach
+  void createCarts() {
+    Customer customer = new Customer();
+    customer.setEmail("graph@example.com");
+    entityManager.persist(customer);
+    Product product = new Product(null, "Book", "Books", new BigDecimal("9.99"), true);
+    entityManager.persist(product);
+    for (int i = 0; i < CARTS; i++) {
+      Cart cart = new Cart();
+      cart.updateCustomer(customer);
+      cart.updateActive(i % 2 == 0);
+      cart.updatePromoCode(i % 3 == 0 ? "P10" : null);
+      cart.updateCreatedDate(LocalDateTime.now());
+      entityManager.persist(cart);
+      for (int k = 0; k < ITEMS_PER_CART; k++) {
+        CartItem item = new CartItem();
+        item.updateCart(cart);
+        item.updateProductSnapshot(ProductState.of(product));
+        item.updateQuantity(k + 1);
+        cart.getItems().add(item);
+        entityManager.persist(item);
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  void findAllWithItemsLoadsCartsAndItemsInOneStatement() {
+    List<Cart> carts = loadWithStatementCount(cartRepository::findAllWithItems, 1);
+    assertThat(carts).hasSize(CARTS);
+  }
+
+  @Test
+  void findActiveWithItemsLoadsCartsAndItemsInOneStatement() {
+    List<Cart> carts = loadWithStatementCount(cartRepository::findActiveWithItems, 1);
+    assertThat(carts).hasSize(CARTS / 2).allMatch(Cart::isActive);
+  }
+
+  @Test
+  void findPromoCartsWithItemsLoadsCartsAndItemsInOneStatement() {
+    List<Cart> carts = loadWithStatementCount(cartRepository::findPromoCartsWithItems, 1);
+    assertThat(carts).hasSize(CARTS / 3).allMatch(cart -> cart.getPromoCode() != null);
+  }
+
+  private List<Cart> loadWithStatementCount(Supplier<List<Cart>> loader, long expectedStatements) {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    List<Cart> carts = loader.get();
+    int quantity = 0;
+    for (Cart cart : carts) {
+      assertThat(cart.getItems()).hasSize(ITEMS_PER_CART);
+      for (CartItem item : cart.getItems()) {
+        quantity += item.getQuantity();
+      }
+    }
+
+    assertThat(quantity).isEqualTo(carts.size() * 6);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(expectedStatements);
+    return carts;
+  }
+}
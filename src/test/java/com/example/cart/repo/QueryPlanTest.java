@@ -0,0 +1,152 @@
+package com.example.cart.repo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.cart.event.ProductState;
+import com.example.cart.model.Cart;
+import com.example.cart.model.CartItem;
+import com.example.cart.model.Customer;
+import com.example.cart.model.DiscountType;
+import com.example.cart.model.Product;
+import com.example.cart.model.PromoCode;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+    + "com.example.cart.repo.RecordingStatementInspector")
+class QueryPlanTest {
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private CartRepository cartRepository;
+
+  @Autowired
+  private CartItemRepository cartItemRepository;
+
+  @Autowired
+  private PromoCodeRepository promoCodeRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @BeforeEach
+  void createData() {
+    for (int c = 0; c < 20; c++) {
+      Customer customer = new Customer();
+      customer.setEmail("plan" + c + "@example.com");
+      entityManager.persist(customer);
+      Product product = new Product(null, "Book " + c, "Books" + c % 4, new BigDecimal("9.99"), true);
+      entityManager.persist(product);
+      entityManager.persist(new PromoCode("P" + c, DiscountType.PERCENT, BigDecimal.TEN, c % 5 == 0, null));
+      for (int i = 0; i < 10; i++) {
+        Cart cart = new Cart();
+        cart.updateCustomer(customer);
+        cart.updateActive(i % 3 == 0);
+        cart.updatePromoCode(i % 4 == 0 ? "P" + c : null);
+        cart.updateCreatedDate(LocalDateTime.now());
+        entityManager.persist(cart);
+        CartItem item = new CartItem();
+        item.updateCart(cart);
+        item.updateProductSnapshot(ProductState.of(product));
+        item.updateQuantity(1 + i);
+        entityManager.persist(item);
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  void activePromoCodesUseActiveIndex() {
+    assertThat(plan(promoCodeRepository::findByActiveTrue)).contains("IDX_PROMO_CODES_ACTIVE");
+  }
+
+  @Test
+  void cartItemExistenceUsesCartIndex() {
+    assertThat(plan(() -> cartItemRepository.existsByCart_CartId(1L))).contains("IDX_CART_ITEMS_CART");
+  }
+
+  @Test
+  void cartItemLookupByCartUsesCartIndex() {
+    assertThat(plan(() -> cartItemRepository.findByCart_CartIdAndSourceProductIdInOrderByCartItemIdAsc(
+        1L, List.of(1L, 2L))))
+        .contains("IDX_CART_ITEMS_CART");
+  }
+
+  @Test
+  void cartExistenceUsesCustomerIndex() {
+    assertThat(plan(() -> cartRepository.existsByCustomer_CustomerId(1L))).contains("IDX_CARTS_CUSTOMER");
+  }
+
+  @Test
+  void activeCartQueriesUseActiveCustomerIndex() {
+    assertThat(plan(cartRepository::countActiveByCustomer)).contains("IDX_CARTS_ACTIVE_CUSTOMER");
+    assertThat(plan(cartRepository::findActiveWithItems))
+        .contains("IDX_CARTS_ACTIVE_CUSTOMER", "IDX_CART_ITEMS_CART");
+  }
+
+  @Test
+  void promoCartsUsePromoCodeIndex() {
+    assertThat(plan(cartRepository::findPromoCartsWithItems))
+        .contains("IDX_CARTS_PROMO_CODE", "IDX_CART_ITEMS_CART")
+        .doesNotContain("CARTS.tableScan");
+  }
+
+  @Test
+  void productCategorySearchUsesCategoryIndex() {
+    assertThat(plan(productRepository::findDistinctCategories)).contains("IDX_PRODUCTS_CATEGORY");
+    assertThat(plan(() -> productRepository.findAll(
+            Specification.<Product>allOf(
+                SearchSpecifications.keyIn("category", List.of("Books1", "Books2")),
+                SearchSpecifications.containsIgnoreCase("category", "books")),
+            Sort.by("productId")),
+        "'Books1'", "'Books2'", "'%books%'"))
+        .contains("IDX_PRODUCTS_CATEGORY")
+        .doesNotContain("tableScan");
+  }
+
+  @Test
+  void productAggregateScansCoveringIndex() {
+    assertThat(plan(cartItemRepository::sumQuantityByProductAndName))
+        .contains("IDX_CART_ITEMS_PRODUCT_QUANTITY", "group sorted")
+        .doesNotContain("tableScan");
+  }
+
+  @Test
+  void categoryAggregateScansCoveringIndex() {
+    assertThat(plan(cartItemRepository::sumQuantityByCategory))
+        .contains("IDX_CART_ITEMS_CATEGORY", "group sorted")
+        .doesNotContain("tableScan");
+  }
+
+  private String plan(Runnable query, String... parameters) {
+    entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    RecordingStatementInspector.clear();
+    query.run();
+    List<String> statements = RecordingStatementInspector.statements();
+    assertThat(statements).hasSize(1);
+    String sql = statements.get(0);
+    for (String parameter : parameters) {
+      sql = sql.replaceFirst("\\?", parameter);
+    }
+    return jdbcTemplate.queryForObject("explain " + sql.replace("?", "1"), String.class);
+  }
+}
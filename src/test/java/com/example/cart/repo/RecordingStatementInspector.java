@@ -0,0 +1,23 @@
+package com.example.cart.repo;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class RecordingStatementInspector implements StatementInspector {
+  private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+  static void clear() {
+    STATEMENTS.clear();
+  }
+
+  static List<String> statements() {
+    return List.copyOf(STATEMENTS);
+  }
+
+  @Override
+  public String inspect(String sql) {
+    STATEMENTS.add(sql);
+    return sql;
+  }
+}
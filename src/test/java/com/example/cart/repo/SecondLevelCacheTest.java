@@ -0,0 +1,133 @@
+package com.example.cart.repo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.cart.TestData;
+import com.example.cart.event.DataTable;
+import com.example.cart.model.Product;
+import com.example.cart.model.PromoCode;
+import com.example.cart.service.BulkImportService;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+  @Autowired
+  private TestData testData;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private PromoCodeRepository promoCodeRepository;
+
+  @Autowired
+  private BulkImportService importService;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void seed() {
+    testData.reset();
+    testData.seed(new Random(5), 2, 10, 0);
+    entityManagerFactory.getCache().evictAll();
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  // The JCache regions are shared by every test context in the JVM.
+  @AfterEach
+  void evict() {
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  @Test
+  void repeatedIdLookupsAreServedFromTheEntityRegions() {
+    Long productId = productRepository.findAll().get(0).getProductId();
+    statistics.clear();
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(productRepository.findById(productId)).isPresent();
+      assertThat(promoCodeRepository.findById("P10")).isPresent();
+    }
+
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    assertThat(statistics.getDomainDataRegionStatistics("products").getHitCount()).isEqualTo(2);
+    assertThat(statistics.getDomainDataRegionStatistics("promo-codes").getHitCount()).isEqualTo(2);
+  }
+
+  @Test
+  void repeatedPromoQueriesAreServedFromTheQueryCache() {
+    for (int i = 0; i < 3; i++) {
+      assertThat(promoCodeRepository.findByActiveTrue()).hasSize(4);
+      assertThat(promoCodeRepository.findAll()).hasSize(5);
+    }
+
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    assertThat(statistics.getQueryCacheHitCount()).isEqualTo(4);
+    assertThat(statistics.getQueryCacheMissCount()).isEqualTo(2);
+  }
+
+  @Test
+  void savesAndDeletesAreVisibleOnTheNextRead() {
+    Long productId = productRepository.findAll().get(0).getProductId();
+    productRepository.findById(productId);
+    promoCodeRepository.findById("P10");
+    promoCodeRepository.findByActiveTrue();
+
+    Product product = productRepository.findById(productId).orElseThrow();
+    product.setBasePrice(new BigDecimal("123.45"));
+    productRepository.save(product);
+    PromoCode promo = promoCodeRepository.findById("P10").orElseThrow();
+    promo.setActive(false);
+    promoCodeRepository.save(promo);
+
+    assertThat(productRepository.findById(productId).orElseThrow().getBasePrice())
+        .isEqualByComparingTo("123.45");
+    assertThat(promoCodeRepository.findById("P10").orElseThrow().isActive()).isFalse();
+    assertThat(promoCodeRepository.findByActiveTrue()).extracting(PromoCode::getCode).doesNotContain("P10");
+
+    productRepository.deleteById(productId);
+    promoCodeRepository.deleteById("F5");
+
+    assertThat(productRepository.findById(productId)).isEmpty();
+    assertThat(promoCodeRepository.findById("F5")).isEmpty();
+    assertThat(promoCodeRepository.findByActiveTrue()).extracting(PromoCode::getCode)
+        .containsExactlyInAnyOrder("BOOK", "TOYS");
+    assertThat(promoCodeRepository.findAll()).extracting(PromoCode::getCode)
+        .containsExactlyInAnyOrder("P10", "BOOK", "OFF", "TOYS");
+  }
+
+  @Test
+  void jdbcImportIsVisibleToCachedQueries() throws Exception {
+    assertThat(promoCodeRepository.findByActiveTrue()).hasSize(4);
+    assertThat(promoCodeRepository.findAll()).hasSize(5);
+    long misses = statistics.getQueryCacheMissCount();
+
+    importService.importRows(DataTable.PROMO_CODES, false, csv(
+        "code,discount_type,discount_value,active\nNEW1,percent,15,true\nNEW2,fixed_amount,3,false\n"));
+
+    assertThat(promoCodeRepository.findByActiveTrue()).extracting(PromoCode::getCode).contains("NEW1");
+    assertThat(promoCodeRepository.findAll()).extracting(PromoCode::getCode).contains("NEW1", "NEW2");
+    assertThat(statistics.getQueryCacheMissCount()).isEqualTo(misses + 2);
+  }
+
+  private static ByteArrayInputStream csv(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
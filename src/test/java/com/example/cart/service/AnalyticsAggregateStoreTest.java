@@ -0,0 +1,125 @@
+package com.example.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.cart.TestData;
+import com.example.cart.dto.CartItemQuantityDto;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AnalyticsAggregateStoreTest {
+  @Autowired
+  private TestData testData;
+
+  @Autowired
+  private AnalyticsAggregateStore aggregateStore;
+
+  @Autowired
+  private CartItemService cartItemService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  private List<Long> cartIds;
+  private List<Long> productIds;
+
+  @BeforeEach
+  void seed() {
+    testData.reset();
+    testData.seed(new Random(5), 8, 20, 30);
+    cartIds = jdbcTemplate.queryForList("select cart_id from carts", Long.class);
+    productIds = jdbcTemplate.queryForList("select product_id from products", Long.class);
+  }
+
+  @Test
+  void aggregatesFollowManagementChanges() throws Exception {
+    assertThat(aggregateStore.reconcile()).isTrue();
+
+    for (int i = 0; i < 20; i++) {
+      randomChange(new Random(i));
+    }
+
+    assertThat(aggregateStore.reconcile()).isTrue();
+  }
+
+  @Test
+  void reloadsRacingWithCommitsDoNotCountChangesTwice() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(5);
+    AtomicBoolean writing = new AtomicBoolean(true);
+    try {
+      List<Future<?>> writers = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        Random random = new Random(100 + thread);
+        writers.add(executor.submit(() -> {
+          for (int i = 0; i < 60; i++) {
+            randomChange(random);
+          }
+          return null;
+        }));
+      }
+      Future<Integer> reloads = executor.submit(() -> {
+        int count = 0;
+        while (writing.get()) {
+          aggregateStore.seed();
+          count++;
+        }
+        return count;
+      });
+
+      for (Future<?> writer : writers) {
+        writer.get(2, TimeUnit.MINUTES);
+      }
+      writing.set(false);
+      assertThat(reloads.get(1, TimeUnit.MINUTES)).isPositive();
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(aggregateStore.reconcile()).isTrue();
+  }
+
+  private void randomChange(Random random) throws Exception {
+    Long cartId = cartIds.get(random.nextInt(cartIds.size()));
+    switch (random.nextInt(4)) {
+      case 0, 1 -> cartItemService.addItems(cartId, List.of(new CartItemQuantityDto(
+          productIds.get(random.nextInt(productIds.size())),
+          1 + random.nextInt(3))));
+      case 2 -> mockMvc.perform(post("/manage/cart/update")
+              .param("cartId", cartId.toString())
+              .param("active", String.valueOf(random.nextBoolean())))
+          .andExpect(status().is3xxRedirection());
+      default -> {
+        List<Long> items = jdbcTemplate.queryForList(
+            "select cart_item_id from cart_items where cart_id = ?", Long.class, cartId);
+        if (!items.isEmpty()) {
+          mockMvc.perform(post("/manage/cart-item/update")
+                  .param("cartItemId", items.get(0).toString())
+                  .param("quantity", String.valueOf(1 + random.nextInt(9))))
+              .andExpect(status().is3xxRedirection());
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.example.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+import com.example.cart.TestData;
+import com.example.cart.dto.OutOfStockProductDto;
+import com.example.cart.dto.PromoCodeDto;
+import com.example.cart.repo.PromoCodeRepository;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AnalyticsCacheInvalidatorTest {
+  @Autowired
+  private TestData testData;
+
+  @Autowired
+  private CartAnalyticsService analyticsService;
+
+  @Autowired
+  private AnalyticsCacheInvalidator invalidator;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  @SpyBean
+  private PromoCodeRepository promoCodeRepository;
+
+  @Test
+  void cachesHoldDtosRatherThanEntities() {
+    testData.reset();
+    testData.seed(new Random(1), 3, 20, 10);
+
+    analyticsService.activePromoCodesNeverUsed();
+    analyticsService.productsInCartsOutOfStock();
+
+    assertThat(cached(AnalyticsCaches.UNUSED_PROMO_CODES)).allMatch(PromoCodeDto.class::isInstance);
+    assertThat(cached(AnalyticsCaches.OUT_OF_STOCK_PRODUCTS)).allMatch(OutOfStockProductDto.class::isInstance);
+  }
+
+  @Test
+  void readerThatStartedBeforeCommitCannotCacheStaleResult() throws Exception {
+    testData.reset();
+    testData.seed(new Random(2), 3, 5, 0);
+    CountDownLatch staleRead = new CountDownLatch(1);
+    CountDownLatch committed = new CountDownLatch(1);
+    Answer<?> repository = mockingDetails(promoCodeRepository).getMockCreationSettings().getDefaultAnswer();
+    doAnswer(invocation -> {
+      Object result = repository.answer(invocation);
+      staleRead.countDown();
+      committed.await(10, TimeUnit.SECONDS);
+      return result;
+    }).doAnswer(repository).when(promoCodeRepository).findByActiveTrue();
+
+    ExecutorService reader = Executors.newSingleThreadExecutor();
+    try {
+      Future<List<PromoCodeDto>> stale = reader.submit(
+          () -> analyticsService.activePromoCodesNeverUsed());
+      assertThat(staleRead.await(10, TimeUnit.SECONDS)).isTrue();
+      testData.reset();
+      committed.countDown();
+      assertThat(stale.get(10, TimeUnit.SECONDS)).isNotEmpty();
+    } finally {
+      reader.shutdownNow();
+    }
+
+    assertThat(analyticsService.activePromoCodesNeverUsed()).isEmpty();
+  }
+
+  private List<?> cached(String cacheName) {
+    Cache cache = cacheManager.getCache(cacheName);
+    Object value = cache.get(invalidator.version(cacheName), List.class);
+    assertThat(value).isNotNull();
+    return (List<?>) value;
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.cart.dto.CategoryCountDto;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class AnalyticsDashboardServiceTest {
+  private final CartAnalyticsService analytics = mock(CartAnalyticsService.class);
+  private AnalyticsDashboardService dashboardService;
+
+  @AfterEach
+  void shutdown() {
+    dashboardService.shutdown();
+  }
+
+  @Test
+  void timedOutSectionsAreCancelled() throws Exception {
+    CountDownLatch interrupted = new CountDownLatch(1);
+    when(analytics.loadSnapshot()).thenAnswer(invocation -> {
+      try {
+        Thread.sleep(60_000);
+      } catch (InterruptedException ex) {
+        interrupted.countDown();
+      }
+      return null;
+    });
+    when(analytics.categoryItemCounts()).thenReturn(List.of(new CategoryCountDto("Books", 1L)));
+    dashboardService = new AnalyticsDashboardService(analytics, 4, 32, Duration.ofMillis(200));
+
+    long started = System.nanoTime();
+    AnalyticsDashboard dashboard = dashboardService.build();
+
+    assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+    assertThat(dashboard.getResults()).containsKey("categoryCounts");
+    assertThat(dashboard.getUnavailable()).contains("Суммы активных корзин", "Итоги с промокодом");
+    assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  void rejectedSectionsAreUnavailableAndNeverRunOnCaller() {
+    Thread caller = Thread.currentThread();
+    when(analytics.loadSnapshot()).thenAnswer(invocation -> {
+      assertThat(Thread.currentThread()).isNotSameAs(caller);
+      Thread.sleep(300);
+      return new AnalyticsSnapshot(List.of(), List.of());
+    });
+    when(analytics.categoryItemCounts()).thenAnswer(invocation -> {
+      assertThat(Thread.currentThread()).isNotSameAs(caller);
+      return List.of();
+    });
+    dashboardService = new AnalyticsDashboardService(analytics, 1, 1, Duration.ofSeconds(2));
+
+    AnalyticsDashboard dashboard = dashboardService.build();
+
+    assertThat(dashboard.getUnavailable()).contains("Количество по категориям");
+    assertThat(dashboard.getResults()).containsKey("activeCartTotals");
+    assertThat(dashboard.getResults()).doesNotContainKey("categoryCounts");
+  }
+}
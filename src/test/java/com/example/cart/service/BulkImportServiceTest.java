@@ -0,0 +1,124 @@
+package com.example.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.cart.TestData;
+import com.example.cart.dto.ImportErrorDto;
+import com.example.cart.dto.ImportReport;
+import com.example.cart.event.DataTable;
+import com.example.cart.model.Customer;
+import com.example.cart.repo.CustomerRepository;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+// Own plain-mode database: H2 2.2.224 in MODE=MySQL can hand out an IDENTITY value that is already
+// taken when a batch insert races single inserts after an explicit id was written (4 of 30 runs of a
+// bare JDBC reproduction, 0 of 30 without the mode). MySQL itself does not do this.
+@SpringBootTest(properties = {
+    "import.chunk-size=50",
+    "spring.datasource.url=jdbc:h2:mem:bulk-import;DB_CLOSE_DELAY=-1"})
+@ActiveProfiles("test")
+class BulkImportServiceTest {
+  @Autowired
+  private TestData testData;
+
+  @Autowired
+  private BulkImportService importService;
+
+  @Autowired
+  private CustomerRepository customerRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void reset() {
+    testData.reset();
+  }
+
+  @Test
+  void importWithoutIdsDoesNotCollideWithConcurrentInserts() throws Exception {
+    int imported = 3000;
+    int saved = 500;
+    StringBuilder csv = new StringBuilder("email,registration_date\n");
+    for (int i = 0; i < imported; i++) {
+      csv.append("import").append(i).append("@example.com,2024-01-01\n");
+    }
+
+    ExecutorService writer = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> saves = writer.submit(() -> {
+        for (int i = 0; i < saved; i++) {
+          Customer customer = new Customer();
+          customer.setEmail("saved" + i + "@example.com");
+          customer.setRegistrationDate(LocalDate.of(2024, 1, 1));
+          customerRepository.save(customer);
+        }
+      });
+      ImportReport report = importService.importRows(DataTable.CUSTOMERS, false, input(csv.toString()));
+      saves.get(30, TimeUnit.SECONDS);
+
+      assertThat(report.getErrors()).isEmpty();
+      assertThat(report.getImported()).isEqualTo(imported);
+    } finally {
+      writer.shutdownNow();
+    }
+    assertThat(jdbcTemplate.queryForObject("select count(distinct customer_id) from customers", Long.class))
+        .isEqualTo(imported + saved);
+  }
+
+  @Test
+  void explicitIdsAreKept() throws Exception {
+    ImportReport report = importService.importRows(DataTable.CUSTOMERS, false, input(
+        "customer_id,email\n900001,explicit@example.com\n,generated@example.com\n"));
+
+    assertThat(report.getImported()).isEqualTo(2);
+    assertThat(jdbcTemplate.queryForObject(
+        "select email from customers where customer_id = 900001", String.class))
+        .isEqualTo("explicit@example.com");
+    assertThat(jdbcTemplate.queryForObject(
+        "select count(*) from customers where email = 'generated@example.com'", Long.class))
+        .isEqualTo(1L);
+  }
+
+  @Test
+  void booleansOtherThanTrueOrFalseAreRowErrors() throws Exception {
+    ImportReport report = importService.importRows(DataTable.PRODUCTS, false, input("""
+        name,category,base_price,in_stock
+        A,Books,1.00,true
+        B,Books,1.00,FALSE
+        C,Books,1.00,
+        D,Books,1.00,yes
+        E,Books,1.00,1
+        F,Books,1.00,tru
+        """));
+
+    assertThat(report.getImported()).isEqualTo(3);
+    assertThat(report.getFailed()).isEqualTo(3);
+    assertThat(report.getErrors()).extracting(ImportErrorDto::getLine).containsExactly(5L, 6L, 7L);
+    assertThat(jdbcTemplate.queryForList("select name from products where in_stock order by name", String.class))
+        .containsExactly("A");
+
+    ImportReport ndjson = importService.importRows(DataTable.PROMO_CODES, true, input("""
+        {"code": "OK", "discount_type": "percent", "discount_value": 10, "active": true}
+        {"code": "BAD", "discount_type": "percent", "discount_value": 10, "active": "on"}
+        """));
+    assertThat(ndjson.getImported()).isEqualTo(1);
+    assertThat(ndjson.getFailed()).isEqualTo(1);
+  }
+
+  private static ByteArrayInputStream input(String text) {
+    return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,177 @@
+package com.example.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import com.example.cart.TestData;
+import com.example.cart.dto.CartItemQuantityDto;
+import com.example.cart.dto.CategoryCountDto;
+import com.example.cart.dto.CustomerCartCountDto;
+import com.example.cart.dto.ProductCountDto;
+import com.example.cart.event.DataImportedEvent;
+import com.example.cart.event.DataTable;
+import com.example.cart.model.Cart;
+import com.example.cart.model.CartItem;
+import com.example.cart.model.Customer;
+import com.example.cart.model.Product;
+import com.example.cart.repo.CartItemRepository;
+import com.example.cart.repo.CartRepository;
+import com.example.cart.repo.CustomerRepository;
+import com.example.cart.repo.ProductRepository;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CartAnalyticsAggregationTest {
+  @Autowired
+  private TestData testData;
+
+  @Autowired
+  private CartAnalyticsService analyticsService;
+
+  @Autowired
+  private AnalyticsAggregateStore aggregateStore;
+
+  @Autowired
+  private CustomerRepository customerRepository;
+
+  @Autowired
+  private CartRepository cartRepository;
+
+  @Autowired
+  private CartItemRepository cartItemRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CartItemService cartItemService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @Test
+  void databaseAggregatesMatchInMemoryComputation() {
+    for (int round = 0; round < 20; round++) {
+      testData.reset();
+      testData.seed(new Random(round), 6, 15, 40);
+      List<CartItem> items = cartItemRepository.findAll();
+
+      assertThat(analyticsService.top5ProductsByAdditions())
+          .usingRecursiveFieldByFieldElementComparator()
+          .containsExactlyElementsOf(expectedTopProducts(items, 5));
+      assertThat(asMap(analyticsService.categoryItemCounts()))
+          .isEqualTo(expectedCategoryCounts(items));
+      assertThat(analyticsService.activeCartCountPerCustomer())
+          .usingRecursiveFieldByFieldElementComparator()
+          .containsExactlyInAnyOrderElementsOf(expectedActiveCarts());
+    }
+  }
+
+  // H2 groups "Books" and "books" apart, MySQL's collation merges them: both must give the same totals.
+  @Test
+  void repositoryAggregatesDifferingOnlyInCaseAreMerged() {
+    testData.reset();
+    Product atlas = productRepository.save(new Product(null, "ATLAS", "BOOKS", new BigDecimal("9.99"), true));
+    Cart cart = cartRepository.save(new Cart());
+    Timestamp addedDate = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0));
+    jdbcTemplate.batchUpdate(
+        "insert into cart_items (cart_id, source_product_id, name, category, base_price, in_stock, quantity, added_date)"
+            + " values (?, ?, ?, ?, 9.99, true, ?, ?)",
+        List.of(
+            new Object[] {cart.getCartId(), atlas.getProductId(), "Atlas", "Books", 2, addedDate},
+            new Object[] {cart.getCartId(), atlas.getProductId(), "atlas", "books", 3, addedDate}));
+    eventPublisher.publishEvent(new DataImportedEvent(DataTable.CART_ITEMS));
+
+    Map<String, Long> categories = new HashMap<>();
+    for (CategoryCountDto row : cartItemRepository.sumQuantityByCategory()) {
+      categories.merge(analyticsService.normalizeCategory(row.getCategory()), row.getTotalQuantity(), Long::sum);
+    }
+    assertThat(categories).containsExactly(entry("books", 5L));
+    List<ProductCountDto> products = cartItemRepository.sumQuantityByProductAndName();
+    assertThat(products).allSatisfy(row -> {
+      assertThat(row.getProductId()).isEqualTo(atlas.getProductId());
+      assertThat(row.getName()).isEqualToIgnoringCase("atlas");
+    });
+    assertThat(products.stream().mapToLong(ProductCountDto::getTotalQuantity).sum()).isEqualTo(5);
+    assertThat(asMap(analyticsService.categoryItemCounts())).containsExactly(entry("books", 5L));
+
+    cartItemService.addItems(cartRepository.save(new Cart()).getCartId(),
+        List.of(new CartItemQuantityDto(atlas.getProductId(), 4)));
+
+    assertThat(asMap(analyticsService.categoryItemCounts())).containsExactly(entry("books", 9L));
+    assertThat(analyticsService.top5ProductsByAdditions()).singleElement().satisfies(row -> {
+      assertThat(row.getProductId()).isEqualTo(atlas.getProductId());
+      assertThat(row.getName()).isEqualToIgnoringCase("atlas");
+      assertThat(row.getTotalQuantity()).isEqualTo(9);
+    });
+    assertThat(aggregateStore.reconcile()).isTrue();
+  }
+
+  private List<ProductCountDto> expectedTopProducts(List<CartItem> items, int limit) {
+    Map<Long, Long> quantities = new HashMap<>();
+    Map<Long, TreeMap<String, Long>> names = new HashMap<>();
+    for (CartItem item : items) {
+      if (item.getSourceProductId() == null) {
+        continue;
+      }
+      quantities.merge(item.getSourceProductId(), (long) item.getQuantity(), Long::sum);
+      if (item.getName() != null) {
+        names.computeIfAbsent(item.getSourceProductId(), id -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER))
+            .merge(item.getName(), (long) item.getQuantity(), Long::sum);
+      }
+    }
+    return quantities.entrySet().stream()
+        .sorted(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder())
+            .thenComparing(Map.Entry.comparingByKey()))
+        .limit(limit)
+        .map(entry -> new ProductCountDto(
+            entry.getKey(),
+            names.containsKey(entry.getKey()) ? names.get(entry.getKey()).firstKey() : null,
+            entry.getValue()))
+        .toList();
+  }
+
+  private Map<String, Long> expectedCategoryCounts(List<CartItem> items) {
+    return items.stream()
+        .filter(item -> item.getCategory() != null)
+        .collect(Collectors.groupingBy(
+            item -> analyticsService.normalizeCategory(item.getCategory()),
+            Collectors.summingLong(CartItem::getQuantity)));
+  }
+
+  private List<CustomerCartCountDto> expectedActiveCarts() {
+    Map<Long, String> emails = customerRepository.findAll().stream()
+        .collect(Collectors.toMap(Customer::getCustomerId, Customer::getEmail));
+    return cartRepository.findAll().stream()
+        .filter(Cart::isActive)
+        .filter(cart -> cart.getCustomer() != null)
+        .collect(Collectors.groupingBy(cart -> cart.getCustomer().getCustomerId(), Collectors.counting()))
+        .entrySet().stream()
+        .map(entry -> new CustomerCartCountDto(entry.getKey(), emails.get(entry.getKey()), entry.getValue()))
+        .toList();
+  }
+
+  private Map<String, Long> asMap(List<CategoryCountDto> counts) {
+    return counts.stream()
+        .collect(Collectors.toMap(CategoryCountDto::getCategory, CategoryCountDto::getTotalQuantity));
+  }
+}
@@ -0,0 +1,194 @@
+package com.example.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.cart.dto.CartEfficiencyDto;
+import com.example.cart.dto.CartFinalTotalDto;
+import com.example.cart.dto.CartTotalDto;
+import com.example.cart.dto.PromoCodeDiscountDto;
+import com.example.cart.model.Cart;
+import com.example.cart.model.CartItem;
+import com.example.cart.model.DiscountType;
+import com.example.cart.model.PromoCode;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class CartAnalyticsMoneyTest {
+  private static final String[] CATEGORIES = {"Books", "books", "Toys", "", null};
+  private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+
+  private final CartAnalyticsService analyticsService = new CartAnalyticsService(null, null, null, null);
+
+  @Test
+  void centsPathsMatchBigDecimalReference() {
+    for (int round = 0; round < 500; round++) {
+      Random random = new Random(round);
+      int priceKind = round % 3;
+      List<PromoCode> promos = randomPromos(random, priceKind);
+      AnalyticsSnapshot snapshot = new AnalyticsSnapshot(randomCarts(random, promos, priceKind), promos);
+      Map<String, PromoCode> promoIndex = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+      promos.forEach(promo -> promoIndex.put(promo.getCode(), promo));
+
+      for (CartTotalDto dto : analyticsService.calculateActiveCartTotals(snapshot)) {
+        assertThat(dto.getTotal()).isEqualByComparingTo(total(find(snapshot, dto.getCartId())));
+      }
+
+      for (CartFinalTotalDto dto : analyticsService.finalTotalsWithPromo(snapshot)) {
+        Cart cart = find(snapshot, dto.getCartId());
+        PromoCode promo = promoIndex.get(cart.getPromoCode());
+        BigDecimal discount = promo == null || !promo.isActive() ? BigDecimal.ZERO : discount(cart, promo);
+        assertThat(dto.getTotal())
+            .isEqualByComparingTo(total(cart).subtract(discount).max(BigDecimal.ZERO));
+      }
+
+      List<PromoCodeDiscountDto> summary = analyticsService.totalDiscountIfAppliedToEligibleCarts(snapshot);
+      assertThat(summary).hasSameSizeAs(promos);
+      for (int i = 0; i < promos.size(); i++) {
+        PromoCode promo = promos.get(i);
+        BigDecimal expected = snapshot.getCarts().stream()
+            .map(cart -> discount(cart, promo))
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(summary.get(i).getCode()).isEqualTo(promo.getCode());
+        assertThat(summary.get(i).getTotalDiscount()).isEqualByComparingTo(expected);
+      }
+
+      Map<Long, BigDecimal> expectedScores = expectedScores(snapshot.getCarts());
+      Map<Long, CartEfficiencyDto> scores = analyticsService.weightedCartEfficiencyScores(snapshot).stream()
+          .collect(Collectors.toMap(CartEfficiencyDto::getCartId, Function.identity()));
+      assertThat(scores).hasSameSizeAs(expectedScores);
+      expectedScores.forEach((cartId, score) -> {
+        assertThat(scores.get(cartId).getScore()).isEqualByComparingTo(score);
+        assertThat(scores.get(cartId).getTotal()).isEqualByComparingTo(total(find(snapshot, cartId)));
+      });
+    }
+  }
+
+  private Map<Long, BigDecimal> expectedScores(List<Cart> carts) {
+    BigDecimal maxTotal = carts.stream().map(this::total).max(BigDecimal::compareTo).orElse(BigDecimal.ZERO);
+    long maxItems = carts.stream().mapToLong(this::itemCount).max().orElse(0L);
+    long maxDistinct = carts.stream().mapToLong(this::distinctCount).max().orElse(0L);
+
+    Map<Long, BigDecimal> scores = new TreeMap<>();
+    for (Cart cart : carts) {
+      BigDecimal score = ratio(total(cart), maxTotal).multiply(new BigDecimal("0.5"))
+          .add(ratio(BigDecimal.valueOf(itemCount(cart)), BigDecimal.valueOf(maxItems)).multiply(new BigDecimal("0.3")))
+          .add(ratio(BigDecimal.valueOf(distinctCount(cart)), BigDecimal.valueOf(maxDistinct)).multiply(new BigDecimal("0.2")))
+          .multiply(ONE_HUNDRED)
+          .setScale(2, RoundingMode.HALF_UP);
+      scores.put(cart.getCartId(), score);
+    }
+    return scores;
+  }
+
+  private BigDecimal ratio(BigDecimal value, BigDecimal max) {
+    return max.signum() <= 0 ? BigDecimal.ZERO : value.divide(max, 4, RoundingMode.HALF_UP);
+  }
+
+  private BigDecimal total(Cart cart) {
+    return cart.getItems().stream()
+        .map(item -> item.getBasePrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+        .reduce(BigDecimal.ZERO, BigDecimal::add);
+  }
+
+  private BigDecimal discount(Cart cart, PromoCode promo) {
+    String category = promo.getApplicableCategory();
+    BigDecimal eligible = cart.getItems().stream()
+        .filter(item -> category == null || category.isBlank() || category.equalsIgnoreCase(item.getCategory()))
+        .map(item -> item.getBasePrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+        .reduce(BigDecimal.ZERO, BigDecimal::add);
+    if (eligible.signum() <= 0) {
+      return BigDecimal.ZERO;
+    }
+    if (promo.getDiscountType() == DiscountType.PERCENT) {
+      return eligible.multiply(promo.getDiscountValue()).divide(ONE_HUNDRED, 2, RoundingMode.HALF_UP);
+    }
+    return promo.getDiscountValue().min(eligible);
+  }
+
+  private long itemCount(Cart cart) {
+    return cart.getItems().stream().mapToLong(CartItem::getQuantity).sum();
+  }
+
+  private long distinctCount(Cart cart) {
+    return cart.getItems().stream().map(CartItem::getSourceProductId).distinct().count();
+  }
+
+  private Cart find(AnalyticsSnapshot snapshot, Long cartId) {
+    return snapshot.getCarts().stream()
+        .filter(cart -> cart.getCartId().equals(cartId))
+        .findFirst()
+        .orElseThrow();
+  }
+
+  private List<PromoCode> randomPromos(Random random, int priceKind) {
+    List<PromoCode> promos = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      boolean percent = random.nextBoolean();
+      BigDecimal value = percent
+          ? switch (random.nextInt(3)) {
+            case 0 -> BigDecimal.valueOf(random.nextInt(10_001), 2);
+            case 1 -> new BigDecimal("1E+1");
+            default -> BigDecimal.valueOf(random.nextInt(1001), 3);
+          }
+          : priceKind == 1
+              ? BigDecimal.valueOf(random.nextInt(100_000), 3)
+              : BigDecimal.valueOf(random.nextInt(100_000), 2);
+      promos.add(new PromoCode(
+          "P" + i,
+          percent ? DiscountType.PERCENT : DiscountType.FIXED_AMOUNT,
+          value,
+          random.nextInt(4) != 0,
+          CATEGORIES[random.nextInt(CATEGORIES.length)]));
+    }
+    return promos;
+  }
+
+  private List<Cart> randomCarts(Random random, List<PromoCode> promos, int priceKind) {
+    List<Cart> carts = new ArrayList<>();
+    long itemId = 1;
+    int cartCount = 1 + random.nextInt(8);
+    for (long cartId = 1; cartId <= cartCount; cartId++) {
+      String promoCode = switch (random.nextInt(4)) {
+        case 0 -> null;
+        case 1 -> "UNKNOWN";
+        case 2 -> promos.get(random.nextInt(promos.size())).getCode().toLowerCase();
+        default -> promos.get(random.nextInt(promos.size())).getCode();
+      };
+      Cart cart = new Cart(cartId, null, LocalDateTime.now(), random.nextBoolean(), promoCode, new ArrayList<>());
+      int itemCount = random.nextInt(6);
+      for (int i = 0; i < itemCount; i++) {
+        cart.getItems().add(new CartItem(
+            itemId++,
+            cart,
+            (long) random.nextInt(5),
+            "item",
+            CATEGORIES[random.nextInt(CATEGORIES.length)],
+            randomPrice(random, priceKind),
+            random.nextBoolean(),
+            1 + random.nextInt(1000),
+            LocalDateTime.now()));
+      }
+      carts.add(cart);
+    }
+    return carts;
+  }
+
+  private BigDecimal randomPrice(Random random, int priceKind) {
+    return switch (priceKind) {
+      case 1 -> BigDecimal.valueOf(random.nextInt(1_000_000), random.nextBoolean() ? 3 : 2);
+      case 2 -> random.nextInt(3) == 0
+          ? new BigDecimal(Long.MAX_VALUE / 100).movePointLeft(2).add(BigDecimal.valueOf(random.nextInt(100), 2))
+          : BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+      default -> BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+    };
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.cart.model.Cart;
+import com.example.cart.repo.CartRepository;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+// Opt-in: mvn -P export-memory-test test. The profile runs it with a small -Xmx, so holding the
+// exported rows in the persistence context (or the driver buffering the result) fails with OOM.
+@SpringBootTest
+@ActiveProfiles({"test", "export-memory"})
+@EnabledIfSystemProperty(named = "export.memory-test", matches = "true")
+class CartItemExportMemoryTest {
+  private static final int ROWS = 1_000_000;
+  private static final int BATCH = 10_000;
+
+  @Autowired
+  private CartItemExportService exportService;
+
+  @Autowired
+  private CartRepository cartRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void exportStreamsMillionRowsInBoundedMemory() {
+    Cart cart = cartRepository.save(new Cart());
+    Timestamp addedDate = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0));
+    for (int offset = 0; offset < ROWS; offset += BATCH) {
+      List<Object[]> rows = new ArrayList<>(BATCH);
+      for (int i = offset; i < offset + BATCH; i++) {
+        rows.add(new Object[] {
+            cart.getCartId(), (long) i % 1000, "Товар " + i, "Категория " + i % 50,
+            BigDecimal.valueOf(i % 10_000, 2), i % 3 != 0, 1 + i % 5, addedDate});
+      }
+      jdbcTemplate.batchUpdate(
+          "insert into cart_items (cart_id, source_product_id, name, category, base_price, in_stock, quantity, added_date)"
+              + " values (?, ?, ?, ?, ?, ?, ?, ?)",
+          rows);
+    }
+
+    AtomicLong characters = new AtomicLong();
+    long exported = exportService.streamCartItems(null, null, null,
+        item -> characters.addAndGet(item.getName().length() + item.getCategory().length()));
+
+    assertThat(exported).isEqualTo(ROWS);
+    assertThat(characters.get()).isPositive();
+  }
+}
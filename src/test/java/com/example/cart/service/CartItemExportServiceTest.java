@@ -0,0 +1,75 @@
+package com.example.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.cart.TestData;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = "search.stream.fetch-size=7")
+@ActiveProfiles("test")
+class CartItemExportServiceTest {
+  @Autowired
+  private TestData testData;
+
+  @Autowired
+  private CartItemExportService exportService;
+
+  @Autowired
+  private ExportConnections exportConnections;
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void seed() {
+    testData.reset();
+    testData.seed(new Random(12), 5, 10, 20);
+  }
+
+  @Test
+  void exportStreamsFilteredRowsInIdOrder() {
+    Long cartId = jdbcTemplate.queryForObject("select min(cart_id) from cart_items", Long.class);
+    List<Long> expected = jdbcTemplate.queryForList(
+        "select cart_item_id from cart_items where cart_id = ? and quantity >= 2 order by cart_item_id",
+        Long.class, cartId);
+
+    List<Long> exported = new ArrayList<>();
+    long count = exportService.streamCartItems(cartId.toString(), null, "2",
+        item -> exported.add(item.getCartItemId()));
+
+    assertThat(exported).isNotEmpty().isEqualTo(expected);
+    assertThat(count).isEqualTo(expected.size());
+  }
+
+  @Test
+  void cursorFetchIsLimitedToTheExportPool() {
+    HikariDataSource main = (HikariDataSource) dataSource;
+    HikariDataSource export = exportConnections.getDataSource();
+    List<int[]> activeConnections = new ArrayList<>();
+
+    long count = exportService.streamCartItems(null, null, null, item -> activeConnections.add(new int[] {
+        main.getHikariPoolMXBean().getActiveConnections(),
+        export.getHikariPoolMXBean().getActiveConnections()}));
+
+    assertThat(count).isEqualTo(jdbcTemplate.queryForObject("select count(*) from cart_items", Long.class));
+    assertThat(activeConnections).allSatisfy(active -> assertThat(active).containsExactly(0, 1));
+    assertThat(export.getPoolName()).isEqualTo("export");
+    assertThat(export.getJdbcUrl()).isEqualTo(main.getJdbcUrl());
+    assertThat(export.getDataSourceProperties()).containsEntry("useCursorFetch", "true");
+    assertThat(main.getDataSourceProperties()).doesNotContainKey("useCursorFetch");
+    assertThat(main.getJdbcUrl()).doesNotContain("useCursorFetch");
+  }
+}
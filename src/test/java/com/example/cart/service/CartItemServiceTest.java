@@ -0,0 +1,151 @@
+package com.example.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.cart.TestData;
+import com.example.cart.dto.AddToCartResultDto;
+import com.example.cart.dto.CartItemQuantityDto;
+import com.example.cart.model.Cart;
+import com.example.cart.model.Product;
+import com.example.cart.repo.CartItemRepository;
+import com.example.cart.repo.CartRepository;
+import com.example.cart.repo.ProductRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CartItemServiceTest {
+  @Autowired
+  private TestData testData;
+
+  @Autowired
+  private CartItemService cartItemService;
+
+  @Autowired
+  private CartRepository cartRepository;
+
+  @Autowired
+  private CartItemRepository cartItemRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  private Long cartId;
+  private Long bookId;
+  private Long toyId;
+
+  @BeforeEach
+  void emptyCart() {
+    testData.reset();
+    testData.seed(new Random(4), 1, 5, 0);
+    cartId = cartRepository.save(new Cart()).getCartId();
+    List<Product> products = productRepository.findAll();
+    bookId = products.get(0).getProductId();
+    toyId = products.get(1).getProductId();
+  }
+
+  @Test
+  void duplicatePairsAreMergedIntoOneLine() {
+    AddToCartResultDto result = cartItemService.addItems(cartId, List.of(
+        new CartItemQuantityDto(bookId, 2),
+        new CartItemQuantityDto(toyId, 1),
+        new CartItemQuantityDto(bookId, 3)));
+
+    assertThat(result.getAddedLines()).isEqualTo(2);
+    assertThat(result.getIncrementedLines()).isZero();
+    assertThat(lines()).containsExactlyInAnyOrder(List.of(bookId, 5), List.of(toyId, 1));
+  }
+
+  @Test
+  void existingLineIsIncrementedRatherThanDuplicated() {
+    cartItemService.addItems(cartId, List.of(new CartItemQuantityDto(bookId, 2)));
+
+    AddToCartResultDto result = cartItemService.addItems(cartId, List.of(
+        new CartItemQuantityDto(bookId, 4), new CartItemQuantityDto(toyId, 1)));
+
+    assertThat(result.getAddedLines()).isEqualTo(1);
+    assertThat(result.getIncrementedLines()).isEqualTo(1);
+    assertThat(lines()).containsExactlyInAnyOrder(List.of(bookId, 6), List.of(toyId, 1));
+  }
+
+  @Test
+  void incrementIsVisibleLaterInTheSameTransaction() {
+    cartItemService.addItems(cartId, List.of(new CartItemQuantityDto(bookId, 2)));
+    Long lineId = cartItemRepository.findByCart_CartIdAndSourceProductIdInOrderByCartItemIdAsc(
+        cartId, List.of(bookId)).get(0).getCartItemId();
+
+    Integer quantity = transactionTemplate.execute(status -> {
+      cartItemRepository.findById(lineId).orElseThrow();
+      cartItemService.addItems(cartId, List.of(new CartItemQuantityDto(bookId, 3)));
+      return cartItemRepository.findById(lineId).orElseThrow().getQuantity();
+    });
+
+    assertThat(quantity).isEqualTo(5);
+  }
+
+  @Test
+  void overflowingIncrementIsRejected() {
+    cartItemService.addItems(cartId, List.of(new CartItemQuantityDto(bookId, Integer.MAX_VALUE - 1)));
+
+    assertThatThrownBy(() -> cartItemService.addItems(cartId, List.of(new CartItemQuantityDto(bookId, 2))))
+        .isInstanceOf(ArithmeticException.class);
+    assertThat(lines()).containsExactly(List.of(bookId, Integer.MAX_VALUE - 1));
+  }
+
+  @Test
+  void concurrentAddsEndWithTheExactTotal() throws Exception {
+    int threads = 8;
+    int callsPerThread = 25;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit((Callable<Void>) () -> {
+          start.await();
+          for (int i = 0; i < callsPerThread; i++) {
+            cartItemService.addItems(cartId, List.of(new CartItemQuantityDto(bookId, 1)));
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(lines()).containsExactly(List.of(bookId, threads * callsPerThread));
+  }
+
+  private List<List<Object>> lines() {
+    return jdbcTemplate.query(
+        "select source_product_id, quantity from cart_items where cart_id = ?",
+        (rs, row) -> List.of(rs.getLong(1), rs.getInt(2)),
+        cartId);
+  }
+}
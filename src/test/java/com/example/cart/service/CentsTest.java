@@ -0,0 +1,158 @@
+package com.example.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CentsTest {
+  private static final int ROUNDS = 200_000;
+  private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+  private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+  private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+  @Test
+  void percentOfMatchesBigDecimalHalfUp() {
+    Random random = new Random(7);
+    for (int i = 0; i < ROUNDS; i++) {
+      long cents = randomLong(random);
+      BigDecimal percent = randomPercent(random);
+      BigDecimal expected = BigDecimal.valueOf(cents).multiply(percent)
+          .divide(ONE_HUNDRED, 0, RoundingMode.HALF_UP);
+
+      if (percentOverflows(cents, percent)) {
+        assertThatThrownBy(() -> Cents.percentOf(cents, percent))
+            .as("%d * %s%%", cents, percent)
+            .isInstanceOf(ArithmeticException.class);
+      } else {
+        assertThat(Cents.percentOf(cents, percent))
+            .as("%d * %s%%", cents, percent)
+            .isEqualTo(expected.longValueExact());
+      }
+    }
+  }
+
+  @Test
+  void ratioMatchesBigDecimalHalfUp() {
+    Random random = new Random(11);
+    for (int i = 0; i < ROUNDS; i++) {
+      long value = randomLong(random);
+      long max = randomLong(random);
+      int scale = random.nextInt(7);
+
+      if (max <= 0) {
+        assertThat(Cents.ratio(value, max, scale)).isZero();
+        continue;
+      }
+      BigInteger scaled = BigInteger.valueOf(value).multiply(BigInteger.TEN.pow(scale));
+      if (!fitsInLong(scaled)) {
+        assertThatThrownBy(() -> Cents.ratio(value, max, scale))
+            .as("%d / %d @ %d", value, max, scale)
+            .isInstanceOf(ArithmeticException.class);
+        continue;
+      }
+      BigDecimal expected = BigDecimal.valueOf(value)
+          .divide(BigDecimal.valueOf(max), scale, RoundingMode.HALF_UP);
+      assertThat(Cents.ratio(value, max, scale))
+          .as("%d / %d @ %d", value, max, scale)
+          .isEqualTo(expected.unscaledValue().longValueExact());
+    }
+  }
+
+  @Test
+  void divideHalfUpMatchesBigDecimalHalfUp() {
+    Random random = new Random(13);
+    for (int i = 0; i < ROUNDS; i++) {
+      long dividend = randomLong(random);
+      long divisor = randomLong(random);
+      if (divisor == 0) {
+        continue;
+      }
+      BigDecimal expected = BigDecimal.valueOf(dividend)
+          .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP);
+
+      if (!fitsInLong(expected.toBigIntegerExact())) {
+        assertThatThrownBy(() -> Cents.divideHalfUp(dividend, divisor))
+            .as("%d / %d", dividend, divisor)
+            .isInstanceOf(ArithmeticException.class);
+      } else {
+        assertThat(Cents.divideHalfUp(dividend, divisor))
+            .as("%d / %d", dividend, divisor)
+            .isEqualTo(expected.longValueExact());
+      }
+    }
+  }
+
+  @Test
+  void divideHalfUpRoundsTiesAwayFromZero() {
+    assertThat(Cents.divideHalfUp(5, 2)).isEqualTo(3);
+    assertThat(Cents.divideHalfUp(-5, 2)).isEqualTo(-3);
+    assertThat(Cents.divideHalfUp(5, -2)).isEqualTo(-3);
+    assertThat(Cents.divideHalfUp(-5, -2)).isEqualTo(3);
+    assertThat(Cents.divideHalfUp(Long.MAX_VALUE, Long.MIN_VALUE)).isEqualTo(-1);
+    assertThat(Cents.divideHalfUp(Long.MIN_VALUE, Long.MIN_VALUE)).isEqualTo(1);
+    assertThatThrownBy(() -> Cents.divideHalfUp(Long.MIN_VALUE, -1))
+        .isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  void overflowingInputsThrowInsteadOfWrapping() {
+    assertThatThrownBy(() -> Cents.line(new BigDecimal("1E17"), 1000))
+        .isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(() -> Cents.of(new BigDecimal("0.001")))
+        .isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(() -> Cents.percentOf(Long.MAX_VALUE, new BigDecimal("1E+3")))
+        .isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(() -> Cents.percentOf(1L, new BigDecimal("1.00000000000000000001")))
+        .isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(() -> Cents.ratio(Long.MAX_VALUE / 10 + 1, 1L, 1))
+        .isInstanceOf(ArithmeticException.class);
+  }
+
+  private static boolean percentOverflows(long cents, BigDecimal percent) {
+    BigInteger unscaled = percent.unscaledValue();
+    if (!fitsInLong(unscaled)) {
+      return true;
+    }
+    BigInteger numerator = BigInteger.valueOf(cents).multiply(unscaled);
+    if (!fitsInLong(numerator)) {
+      return true;
+    }
+    if (percent.scale() < 0) {
+      BigInteger power = BigInteger.TEN.pow(-percent.scale());
+      return !fitsInLong(power) || !fitsInLong(numerator.multiply(power));
+    }
+    BigInteger power = BigInteger.TEN.pow(percent.scale());
+    return !fitsInLong(power) || !fitsInLong(power.multiply(BigInteger.valueOf(100)));
+  }
+
+  private static boolean fitsInLong(BigInteger value) {
+    return value.compareTo(LONG_MIN) >= 0 && value.compareTo(LONG_MAX) <= 0;
+  }
+
+  private static BigDecimal randomPercent(Random random) {
+    BigInteger unscaled = switch (random.nextInt(4)) {
+      case 0 -> BigInteger.valueOf(random.nextInt(20_001) - 10_000);
+      case 1 -> BigInteger.valueOf(randomLong(random));
+      case 2 -> new BigInteger(70, random).negate();
+      default -> BigInteger.valueOf(random.nextInt(101));
+    };
+    int scale = random.nextInt(24) - 4;
+    return new BigDecimal(unscaled, scale);
+  }
+
+  private static long randomLong(Random random) {
+    return switch (random.nextInt(6)) {
+      case 0 -> random.nextInt(2001) - 1000;
+      case 1 -> random.nextInt();
+      case 2 -> random.nextLong();
+      case 3 -> random.nextLong() >> random.nextInt(64);
+      case 4 -> random.nextBoolean() ? Long.MIN_VALUE : Long.MAX_VALUE;
+      default -> random.nextInt(7) - 3 + (random.nextBoolean() ? Long.MIN_VALUE / 2 : -1L);
+    };
+  }
+}
@@ -0,0 +1,223 @@
+package com.example.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.cart.TestData;
+import com.example.cart.dto.KeysetPage;
+import com.example.cart.dto.PageCursor;
+import com.example.cart.model.Cart;
+import com.example.cart.model.CartItem;
+import com.example.cart.model.Customer;
+import com.example.cart.model.DiscountType;
+import com.example.cart.model.LoyaltyLevel;
+import com.example.cart.model.Product;
+import com.example.cart.model.PromoCode;
+import com.example.cart.repo.CartItemRepository;
+import com.example.cart.repo.CartRepository;
+import com.example.cart.repo.CustomerRepository;
+import com.example.cart.repo.ProductRepository;
+import com.example.cart.repo.PromoCodeRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DataSearchEquivalenceTest {
+  private static final String[] INPUTS = {
+      null, "", " ", "x", "1", "2", "3", "7", "abc", "-1", "9999999999999999999",
+      "true", "false", "TRUE", "yes", "gold", "GOLD", " silver ", "percent", "fixed_amount", "FIXED_AMOUNT",
+      "2024-01-02", "2024-01-04", " 2024-01-06 ", "bad-date", "10", "50.5", "10.00", "0", "-5",
+      "user1", "  USER", "EXAMPLE.COM", "%", "_", "\\", "p1", "P", "book", "BOOKS", "toy", "o", "!", "unknown"};
+  private static final String[] PAGE_SIZES = {"2", "7", "50", "500"};
+
+  @Autowired
+  private TestData testData;
+
+  @Autowired
+  private DataSearchService searchService;
+
+  @Autowired
+  private CustomerRepository customerRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CartRepository cartRepository;
+
+  @Autowired
+  private CartItemRepository cartItemRepository;
+
+  @Autowired
+  private PromoCodeRepository promoCodeRepository;
+
+  @Test
+  void searchMatchesInMemoryFiltering() {
+    testData.reset();
+    testData.seed(new Random(11), 12, 30, 40);
+
+    List<Customer> customers = customerRepository.findAll();
+    List<Product> products = productRepository.findAll();
+    List<Cart> carts = cartRepository.findAll();
+    List<CartItem> items = cartItemRepository.findAll();
+    List<PromoCode> promos = promoCodeRepository.findAll();
+
+    List<String> inputs = new ArrayList<>(Arrays.asList(INPUTS));
+    customers.stream().limit(3).forEach(customer -> inputs.add(String.valueOf(customer.getCustomerId())));
+    carts.stream().limit(3).forEach(cart -> inputs.add(" " + cart.getCartId()));
+    products.stream().limit(3).forEach(product -> inputs.add(String.valueOf(product.getProductId())));
+
+    Random random = new Random(3);
+    for (int i = 0; i < 2000; i++) {
+      String a = pick(random, inputs);
+      String b = pick(random, inputs);
+      String c = pick(random, inputs);
+      String d = pick(random, inputs);
+      String e = pick(random, inputs);
+      String size = PAGE_SIZES[random.nextInt(PAGE_SIZES.length)];
+      String description = String.join("|", String.valueOf(a), String.valueOf(b), String.valueOf(c),
+          String.valueOf(d), String.valueOf(e)) + " size=" + size;
+
+      assertThat(keys(cursor -> searchService.searchCustomers(a, b, c, d, cursor), Customer::getCustomerId, size))
+          .as("customers %s", description)
+          .isEqualTo(expectedCustomers(customers, a, b, c, d));
+      assertThat(keys(cursor -> searchService.searchProducts(a, b, c, d, e, cursor), Product::getProductId, size))
+          .as("products %s", description)
+          .isEqualTo(expectedProducts(products, a, b, c, d, e));
+      assertThat(keys(cursor -> searchService.searchCarts(a, b, c, cursor), Cart::getCartId, size))
+          .as("carts %s", description)
+          .isEqualTo(expectedCarts(carts, a, b, c));
+      assertThat(keys(cursor -> searchService.searchCartItems(a, b, c, cursor), CartItem::getCartItemId, size))
+          .as("cart items %s", description)
+          .isEqualTo(expectedCartItems(items, a, b, c));
+      assertThat(keys(cursor -> searchService.searchPromos(a, b, c, cursor), PromoCode::getCode, size))
+          .as("promos %s", description)
+          .isEqualTo(expectedPromos(promos, a, b, c));
+    }
+  }
+
+  private <T, K> List<K> keys(Function<PageCursor, KeysetPage<T>> search, Function<T, K> keyOf, String size) {
+    List<K> keys = new ArrayList<>();
+    String next = null;
+    do {
+      KeysetPage<T> page = search.apply(new PageCursor(next, null, size));
+      page.getItems().forEach(item -> keys.add(keyOf.apply(item)));
+      next = page.getNextCursor();
+    } while (next != null);
+    return keys;
+  }
+
+  private List<Long> expectedCustomers(List<Customer> customers, String email, String loyaltyLevel,
+      String registeredFrom, String registeredTo) {
+    LocalDate from = parse(registeredFrom, LocalDate::parse);
+    LocalDate to = parse(registeredTo, LocalDate::parse);
+    LoyaltyLevel level = parse(loyaltyLevel, value -> LoyaltyLevel.valueOf(value.toUpperCase()));
+    return filter(customers, Customer::getCustomerId,
+        customer -> isBlank(email) || containsIgnoreCase(customer.getEmail(), email),
+        customer -> level == null || customer.getLoyaltyLevel() == level,
+        customer -> isWithin(customer.getRegistrationDate(), from, to));
+  }
+
+  private List<Long> expectedProducts(List<Product> products, String name, String category, String inStock,
+      String minPrice, String maxPrice) {
+    Boolean stock = parse(inStock, Boolean::parseBoolean);
+    BigDecimal min = parse(minPrice, BigDecimal::new);
+    BigDecimal max = parse(maxPrice, BigDecimal::new);
+    return filter(products, Product::getProductId,
+        product -> isBlank(name) || containsIgnoreCase(product.getName(), name),
+        product -> isBlank(category) || containsIgnoreCase(product.getCategory(), category),
+        product -> stock == null || product.isInStock() == stock,
+        product -> isBetween(product.getBasePrice(), min, max));
+  }
+
+  private List<Long> expectedCarts(List<Cart> carts, String customerId, String active, String promoCode) {
+    Long customer = parse(customerId, Long::valueOf);
+    Boolean isActive = parse(active, Boolean::parseBoolean);
+    return filter(carts, Cart::getCartId,
+        cart -> customer == null
+            || (cart.getCustomer() != null && customer.equals(cart.getCustomer().getCustomerId())),
+        cart -> isActive == null || cart.isActive() == isActive,
+        cart -> isBlank(promoCode) || containsIgnoreCase(cart.getPromoCode(), promoCode));
+  }
+
+  private List<Long> expectedCartItems(List<CartItem> items, String cartId, String productId, String minQuantity) {
+    Long cart = parse(cartId, Long::valueOf);
+    Long product = parse(productId, Long::valueOf);
+    Integer min = parse(minQuantity, Integer::valueOf);
+    return filter(items, CartItem::getCartItemId,
+        item -> cart == null || (item.getCart() != null && cart.equals(item.getCart().getCartId())),
+        item -> product == null || product.equals(item.getSourceProductId()),
+        item -> min == null || item.getQuantity() >= min);
+  }
+
+  private List<String> expectedPromos(List<PromoCode> promos, String discountType, String active, String category) {
+    DiscountType type = parse(discountType, value -> DiscountType.valueOf(value.toUpperCase()));
+    Boolean isActive = parse(active, Boolean::parseBoolean);
+    return filter(promos, PromoCode::getCode,
+        promo -> type == null || promo.getDiscountType() == type,
+        promo -> isActive == null || promo.isActive() == isActive,
+        promo -> isBlank(category) || containsIgnoreCase(promo.getApplicableCategory(), category));
+  }
+
+  @SafeVarargs
+  private static <T, K extends Comparable<? super K>> List<K> filter(List<T> rows, Function<T, K> keyOf,
+      Predicate<T>... predicates) {
+    return rows.stream()
+        .filter(row -> List.of(predicates).stream().allMatch(predicate -> predicate.test(row)))
+        .map(keyOf)
+        .sorted(Comparator.naturalOrder())
+        .toList();
+  }
+
+  private static String pick(Random random, List<String> inputs) {
+    return inputs.get(random.nextInt(inputs.size()));
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+
+  private static boolean containsIgnoreCase(String value, String needle) {
+    return value != null && value.toLowerCase().contains(needle.toLowerCase().trim());
+  }
+
+  private static <T> T parse(String value, Function<String, T> parser) {
+    if (isBlank(value)) {
+      return null;
+    }
+    try {
+      return parser.apply(value.trim());
+    } catch (RuntimeException ex) {
+      return null;
+    }
+  }
+
+  private static boolean isWithin(LocalDate value, LocalDate from, LocalDate to) {
+    if (from == null && to == null) {
+      return true;
+    }
+    return value != null
+        && (from == null || !value.isBefore(from))
+        && (to == null || !value.isAfter(to));
+  }
+
+  private static boolean isBetween(BigDecimal value, BigDecimal min, BigDecimal max) {
+    if (min == null && max == null) {
+      return true;
+    }
+    return value != null
+        && (min == null || value.compareTo(min) >= 0)
+        && (max == null || value.compareTo(max) <= 0);
+  }
+}
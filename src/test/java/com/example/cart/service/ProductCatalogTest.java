@@ -0,0 +1,173 @@
+package com.example.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.cart.TestData;
+import com.example.cart.dto.CartItemQuantityDto;
+import com.example.cart.event.DataTable;
+import com.example.cart.event.ProductState;
+import com.example.cart.model.Product;
+import com.example.cart.repo.CartRepository;
+import com.example.cart.repo.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "catalog.cache.max-size=5")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductCatalogTest {
+  @Autowired
+  private TestData testData;
+
+  @Autowired
+  private ProductCatalog productCatalog;
+
+  @Autowired
+  private CartItemService cartItemService;
+
+  @Autowired
+  private CartRepository cartRepository;
+
+  @Autowired
+  private BulkImportService importService;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @SpyBean
+  private ProductRepository productRepository;
+
+  private List<Long> productIds;
+
+  @BeforeEach
+  void seed() {
+    testData.reset();
+    testData.seed(new Random(9), 1, 20, 1);
+    productIds = productRepository.findAll().stream().map(Product::getProductId).sorted().toList();
+    clearInvocations(productRepository);
+  }
+
+  @Test
+  void repeatedAddToCartDoesNotLoadProducts() {
+    Long cartId = cartRepository.findAll().get(0).getCartId();
+    List<CartItemQuantityDto> items = List.of(
+        new CartItemQuantityDto(productIds.get(0), 1), new CartItemQuantityDto(productIds.get(1), 2));
+
+    cartItemService.addItems(cartId, items);
+    clearInvocations(productRepository);
+    cartItemService.addItems(cartId, items);
+    cartItemService.addItems(cartId, items);
+
+    verify(productRepository, never()).findAllById(any());
+  }
+
+  @Test
+  void updateDeleteAndImportAreVisibleOnTheNextRead() throws Exception {
+    Long updated = productIds.get(0);
+    Long deleted = productIds.get(1);
+    productCatalog.findAllById(List.of(updated, deleted));
+
+    mockMvc.perform(post("/manage/product/update")
+            .param("productId", updated.toString())
+            .param("name", "Renamed")
+            .param("basePrice", "77.70"))
+        .andExpect(status().is3xxRedirection());
+    mockMvc.perform(post("/manage/product/delete").param("productId", deleted.toString()))
+        .andExpect(status().is3xxRedirection());
+
+    ProductState product = productCatalog.findById(updated).orElseThrow();
+    assertThat(product.getName()).isEqualTo("Renamed");
+    assertThat(product.getBasePrice()).isEqualByComparingTo("77.70");
+    assertThat(productCatalog.findById(deleted)).isEmpty();
+
+    Long imported = productIds.get(productIds.size() - 1) + 1000;
+    assertThat(productCatalog.findById(imported)).isEmpty();
+    productCatalog.findById(productIds.get(2));
+    importService.importRows(DataTable.PRODUCTS, false, new ByteArrayInputStream(
+        ("product_id,name,category,base_price,in_stock\n" + imported + ",Imported,Books,3.00,true\n")
+            .getBytes(StandardCharsets.UTF_8)));
+
+    assertThat(productCatalog.findById(imported)).map(ProductState::getName).contains("Imported");
+    assertThat(nativeCache().estimatedSize()).isEqualTo(1);
+  }
+
+  @Test
+  void loadThatOverlapsAnUpdateIsNotCached() throws Exception {
+    Long productId = productIds.get(0);
+    CountDownLatch loaded = new CountDownLatch(1);
+    CountDownLatch updated = new CountDownLatch(1);
+    Answer<?> repository = mockingDetails(productRepository).getMockCreationSettings().getDefaultAnswer();
+    doAnswer(invocation -> {
+      Object result = repository.answer(invocation);
+      loaded.countDown();
+      updated.await(10, TimeUnit.SECONDS);
+      return result;
+    }).doAnswer(repository).when(productRepository).findAllById(any());
+
+    ExecutorService reader = Executors.newSingleThreadExecutor();
+    try {
+      Future<Optional<ProductState>> stale = reader.submit(() -> productCatalog.findById(productId));
+      assertThat(loaded.await(10, TimeUnit.SECONDS)).isTrue();
+      mockMvc.perform(post("/manage/product/update")
+              .param("productId", productId.toString())
+              .param("basePrice", "55.50"))
+          .andExpect(status().is3xxRedirection());
+      updated.countDown();
+      assertThat(stale.get(10, TimeUnit.SECONDS)).isPresent();
+    } finally {
+      reader.shutdownNow();
+    }
+
+    assertThat(productCatalog.findById(productId).orElseThrow().getBasePrice()).isEqualByComparingTo("55.50");
+  }
+
+  @Test
+  void cacheStaysWithinItsBoundAndReportsHitRatio() {
+    productCatalog.findAllById(productIds);
+    productCatalog.findAllById(productIds);
+    nativeCache().cleanUp();
+
+    assertThat(nativeCache().estimatedSize()).isLessThanOrEqualTo(5);
+    assertThat(meterRegistry.find("cache.hit.ratio").tag("name", ProductCatalog.CACHE).gauge()).isNotNull();
+    assertThat(meterRegistry.find("cache.size").tag("name", ProductCatalog.CACHE).gauge()).isNotNull();
+  }
+
+  private Cache<Object, Object> nativeCache() {
+    return ((CaffeineCache) cacheManager.getCache(ProductCatalog.CACHE)).getNativeCache();
+  }
+}
@@ -0,0 +1,52 @@
+package com.example.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.example.cart.model.CartItem;
+import com.example.cart.repo.CartItemRepository;
+import com.example.cart.repo.ProductRepository;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=update")
+@ActiveProfiles("test")
+class SchemaMigrationsStartupTest {
+  @Autowired
+  private CartItemRepository cartItemRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @DynamicPropertySource
+  static void legacyDatabase(DynamicPropertyRegistry registry) {
+    String url = "jdbc:h2:mem:legacy-startup-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    SchemaMigrationsTest.createLegacySchema(new JdbcTemplate(new DriverManagerDataSource(url, "sa", "")));
+    registry.add("spring.datasource.url", () -> url);
+  }
+
+  @Test
+  void migratesBeforeHibernateUpdatesTheSchema() {
+    assertThat(productRepository.findAll()).extracting("productId").containsExactlyInAnyOrder(1L, 2L);
+    assertThat(cartItemRepository.findAll())
+        .extracting(CartItem::getCartItemId, CartItem::getName)
+        .containsExactlyInAnyOrder(
+            tuple(3L, "Old book"),
+            tuple(4L, "Book"),
+            tuple(5L, "Toy"));
+    assertThat(jdbcTemplate.queryForList(
+        "select column_name from information_schema.columns where table_name = 'CART_ITEMS'", String.class))
+        .contains("CART_ITEM_ID")
+        .doesNotContain("PRODUCT_ID");
+  }
+}
@@ -0,0 +1,141 @@
+package com.example.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.h2.api.Trigger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class SchemaMigrationsTest {
+  private DriverManagerDataSource dataSource;
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void legacyDatabase() {
+    dataSource = new DriverManagerDataSource(
+        "jdbc:h2:mem:legacy-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    createLegacySchema(jdbcTemplate);
+  }
+
+  @Test
+  void movesSnapshotsIntoCartItemsAndRenamesTheId() {
+    new SchemaMigrations(dataSource).migrate();
+
+    assertThat(jdbcTemplate.queryForList("select product_id from products order by product_id", Long.class))
+        .containsExactly(1L, 2L);
+    assertThat(jdbcTemplate.queryForList(
+        "select cart_item_id, source_product_id, name, base_price, in_stock, quantity "
+            + "from cart_items order by cart_item_id"))
+        .extracting(row -> List.of(row.get("CART_ITEM_ID"), row.get("SOURCE_PRODUCT_ID"), row.get("NAME"),
+            row.get("BASE_PRICE").toString(), row.get("IN_STOCK"), row.get("QUANTITY")))
+        .containsExactly(
+            List.of(3L, 1L, "Old book", "9.50", true, 2),
+            List.of(4L, 1L, "Book", "12.00", true, 1),
+            List.of(5L, 2L, "Toy", "5.25", false, 3));
+    assertThat(columns("CART_ITEMS")).contains("CART_ITEM_ID").doesNotContain("PRODUCT_ID");
+    assertThat(indexes()).doesNotContain("IDX_CART_ITEMS_SOURCE_PRODUCT");
+    assertThat(jdbcTemplate.queryForObject("select count(*) from schema_migrations", Integer.class))
+        .isEqualTo(7);
+
+    jdbcTemplate.update("insert into cart_items (source_product_id, name, category, base_price, quantity) "
+        + "values (2, 'Toy', 'Toys', 5.25, 1)");
+    assertThat(jdbcTemplate.queryForObject("select max(cart_item_id) from cart_items", Long.class))
+        .isEqualTo(6L);
+  }
+
+  @Test
+  void secondRunChangesNothing() {
+    new SchemaMigrations(dataSource).migrate();
+    List<Map<String, Object>> products = jdbcTemplate.queryForList("select * from products order by product_id");
+    List<Map<String, Object>> items = jdbcTemplate.queryForList("select * from cart_items order by cart_item_id");
+
+    new SchemaMigrations(dataSource).migrate();
+
+    assertThat(jdbcTemplate.queryForList("select * from products order by product_id")).isEqualTo(products);
+    assertThat(jdbcTemplate.queryForList("select * from cart_items order by cart_item_id")).isEqualTo(items);
+  }
+
+  @Test
+  void resumesAfterAnInterruptedRun() {
+    jdbcTemplate.execute("alter table cart_items add column name varchar(255)");
+    jdbcTemplate.execute(
+        "create table schema_migrations (id varchar(100) primary key, applied_at timestamp not null)");
+    jdbcTemplate.execute("create trigger stop_before_rename before insert on schema_migrations for each row "
+        + "call \"" + StopBeforeRename.class.getName() + "\"");
+
+    assertThatThrownBy(() -> new SchemaMigrations(dataSource).migrate()).hasRootCauseMessage("interrupted");
+    assertThat(jdbcTemplate.queryForList("select id from schema_migrations", String.class))
+        .containsExactlyInAnyOrder(SchemaMigrations.SNAPSHOT_COLUMNS, SchemaMigrations.COPY_SNAPSHOTS,
+            SchemaMigrations.DROP_PRODUCT_FOREIGN_KEY, SchemaMigrations.DELETE_SNAPSHOT_PRODUCTS);
+    assertThat(columns("CART_ITEMS")).contains("CART_ITEM_ID");
+
+    jdbcTemplate.execute("drop trigger stop_before_rename");
+    new SchemaMigrations(dataSource).migrate();
+
+    assertThat(jdbcTemplate.queryForList("select product_id from products order by product_id", Long.class))
+        .containsExactly(1L, 2L);
+    assertThat(jdbcTemplate.queryForList("select name from cart_items order by cart_item_id", String.class))
+        .containsExactly("Old book", "Book", "Toy");
+    assertThat(jdbcTemplate.queryForObject("select count(*) from schema_migrations", Integer.class))
+        .isEqualTo(7);
+  }
+
+  @Test
+  void freshDatabaseOnlyRecordsTheSteps() {
+    DriverManagerDataSource fresh = new DriverManagerDataSource(
+        "jdbc:h2:mem:fresh-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+    new SchemaMigrations(fresh).migrate();
+
+    JdbcTemplate freshJdbc = new JdbcTemplate(fresh);
+    assertThat(freshJdbc.queryForObject("select count(*) from schema_migrations", Integer.class)).isEqualTo(7);
+    assertThat(freshJdbc.queryForObject(
+        "select count(*) from information_schema.tables where table_name = 'CART_ITEMS'", Integer.class))
+        .isZero();
+  }
+
+  static void createLegacySchema(JdbcTemplate jdbcTemplate) {
+    jdbcTemplate.execute("create table products ("
+        + "product_id bigint generated by default as identity primary key, "
+        + "name varchar(255), category varchar(255), base_price numeric(38,2), in_stock boolean not null)");
+    jdbcTemplate.execute("create table cart_items ("
+        + "product_id bigint not null primary key, cart_id bigint, source_product_id bigint, "
+        + "quantity integer not null, added_date timestamp(6), "
+        + "constraint fk_cart_items_products foreign key (product_id) references products (product_id))");
+    jdbcTemplate.execute("create index idx_cart_items_source_product on cart_items (source_product_id)");
+    jdbcTemplate.update("insert into products (product_id, name, category, base_price, in_stock) values "
+        + "(1, 'Book', 'Books', 12.00, true), (2, 'Toy', 'Toys', 5.25, false), "
+        + "(3, 'Old book', 'Books', 9.50, true), (4, 'Book', 'Books', 12.00, true), "
+        + "(5, 'Toy', 'Toys', 5.25, false)");
+    jdbcTemplate.execute("alter table products alter column product_id restart with 6");
+    jdbcTemplate.update("insert into cart_items (product_id, source_product_id, quantity) values "
+        + "(3, 1, 2), (4, 1, 1), (5, 2, 3)");
+  }
+
+  private List<String> columns(String table) {
+    return jdbcTemplate.queryForList(
+        "select column_name from information_schema.columns where table_name = ?", String.class, table);
+  }
+
+  private List<String> indexes() {
+    return jdbcTemplate.queryForList(
+        "select index_name from information_schema.indexes where table_name = 'CART_ITEMS'", String.class);
+  }
+
+  public static class StopBeforeRename implements Trigger {
+    @Override
+    public void fire(Connection connection, Object[] oldRow, Object[] newRow) {
+      if (SchemaMigrations.RENAME_ID.equals(newRow[0])) {
+        throw new IllegalStateException("interrupted");
+      }
+    }
+  }
+}
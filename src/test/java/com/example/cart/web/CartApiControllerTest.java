@@ -0,0 +1,92 @@
+package com.example.cart.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.cart.TestData;
+import com.example.cart.model.Cart;
+import com.example.cart.repo.CartRepository;
+import com.example.cart.repo.ProductRepository;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CartApiControllerTest {
+  @Autowired
+  private TestData testData;
+
+  @Autowired
+  private CartRepository cartRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  private Long cartId;
+  private Long productId;
+
+  @BeforeEach
+  void emptyCart() {
+    testData.reset();
+    testData.seed(new Random(6), 1, 3, 0);
+    cartId = cartRepository.save(new Cart()).getCartId();
+    productId = productRepository.findAll().get(0).getProductId();
+  }
+
+  @Test
+  void addsItems() throws Exception {
+    addItems("[{\"productId\": " + productId + ", \"quantity\": 2}]")
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.addedLines").value(1));
+  }
+
+  @Test
+  void unknownProductIsBadRequest() throws Exception {
+    addItems("[{\"productId\": " + productId + ", \"quantity\": 1}, {\"productId\": 999999, \"quantity\": 1}]")
+        .andExpect(status().isBadRequest());
+    assertThat(lineCount()).isZero();
+  }
+
+  @Test
+  void nonPositiveQuantityIsBadRequest() throws Exception {
+    addItems("[{\"productId\": " + productId + ", \"quantity\": 0}]").andExpect(status().isBadRequest());
+    addItems("[{\"productId\": " + productId + ", \"quantity\": -3}]").andExpect(status().isBadRequest());
+    assertThat(lineCount()).isZero();
+  }
+
+  @Test
+  void unknownCartIsNotFound() throws Exception {
+    mockMvc.perform(post("/api/carts/{cartId}/items", cartId + 1000)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"productId\": " + productId + ", \"quantity\": 1}]"))
+        .andExpect(status().isNotFound());
+  }
+
+  private ResultActions addItems(String body) throws Exception {
+    return mockMvc.perform(post("/api/carts/{cartId}/items", cartId)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(body));
+  }
+
+  private int lineCount() {
+    return jdbcTemplate.queryForObject("select count(*) from cart_items where cart_id = ?", Integer.class, cartId);
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.cart.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.cart.TestData;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IndexStreamingTest {
+  private static final int CUSTOMERS = 1200;
+  private static final Pattern EMAIL = Pattern.compile("stream\\d+@example\\.com");
+
+  @Autowired
+  private TestData testData;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void createCustomers() {
+    testData.reset();
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < CUSTOMERS; i++) {
+      rows.add(new Object[] {"stream" + i + "@example.com", LocalDate.of(2024, 1, 1)});
+    }
+    jdbcTemplate.batchUpdate("insert into customers (email, registration_date) values (?, ?)", rows);
+  }
+
+  @Test
+  void streamModeRendersEveryRowAcrossKeysetChunks() throws Exception {
+    assertThat(renderedEmails("/?tab=customers&stream=true")).isEqualTo(CUSTOMERS);
+  }
+
+  @Test
+  void pagedModeRendersFirstPageOnly() throws Exception {
+    assertThat(renderedEmails("/?tab=customers")).isEqualTo(50);
+  }
+
+  private int renderedEmails(String url) throws Exception {
+    String html = mockMvc.perform(get(url))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+    Matcher matcher = EMAIL.matcher(html);
+    int count = 0;
+    while (matcher.find()) {
+      count++;
+    }
+    return count;
+  }
+}